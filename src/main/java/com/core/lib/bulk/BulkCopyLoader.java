@@ -0,0 +1,240 @@
+package com.core.lib.bulk;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.JDBCException;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Loads entities into PostgreSQL with {@code COPY ... FROM STDIN}, bypassing the persistence context.
+ * <p>
+ * The input is consumed lazily and committed in chunks of {@code chunk-size} rows, so memory is
+ * bounded by one encoded chunk whatever the input size. Each chunk is one COPY in its own
+ * transaction on a dedicated connection; the load does not take part in a surrounding Spring
+ * transaction, and chunks committed before a failure stay committed.
+ * <p>
+ * Rows that cannot be encoded (e.g. null in a non-nullable column) are rejected up front. When
+ * PostgreSQL refuses a chunk (constraint violation, bad value) the chunk is rolled back to a
+ * savepoint and bisected until the offending rows are isolated; they are rejected and the others
+ * are loaded. Rejected rows are counted and the first {@code max-reported-rejects} are returned
+ * with their reason. Loss of the connection aborts the load.
+ * <p>
+ * Entities with a {@code @SequenceGenerator} id get their id set before they are copied, drawn in
+ * {@code allocationSize} blocks through Hibernate's generator exactly like persisted entities, so
+ * one {@code nextval} covers a block of rows; rejected rows keep the id they were given. Other ids
+ * come from the column default and entities passed in are not updated.
+ */
+@Log4j2
+public class BulkCopyLoader {
+
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CopyFormat defaultFormat;
+    private final int chunkSize;
+    private final int maxReportedRejects;
+    private final Map<Class<?>, CopyTableMapping<?>> mappings = new ConcurrentHashMap<>();
+
+    public BulkCopyLoader(DataSource dataSource, EntityManagerFactory entityManagerFactory,
+                          CopyFormat defaultFormat, int chunkSize, int maxReportedRejects) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.defaultFormat = defaultFormat;
+        this.chunkSize = chunkSize;
+        this.maxReportedRejects = maxReportedRejects;
+    }
+
+    public <T> BulkLoadResult load(Class<T> entityType, Stream<T> rows) {
+        try (rows) {
+            return load(entityType, rows.iterator(), defaultFormat);
+        }
+    }
+
+    public <T> BulkLoadResult load(Class<T> entityType, Iterator<T> rows) {
+        return load(entityType, rows, defaultFormat);
+    }
+
+    public <T> BulkLoadResult load(Class<T> entityType, Iterator<T> rows, CopyFormat format) {
+        CopyTableMapping<T> mapping = mapping(entityType);
+        CopyRowEncoder encoder = CopyRowEncoder.of(format, mapping.columns());
+        Run run = new Run(mapping.copySql(format), encoder);
+        long start = System.nanoTime();
+
+        try (Connection connection = dataSource.getConnection();
+             StatelessSession session = idSession(mapping, connection)) {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                List<EncodedRow> chunk = new ArrayList<>(chunkSize);
+                long rowNumber = 0;
+                while (rows.hasNext()) {
+                    T entity = rows.next();
+                    if (session != null) {
+                        try {
+                            mapping.assignId(entity, (SharedSessionContractImplementor) session);
+                        } catch (JDBCException ex) {
+                            throw ex.getSQLException();
+                        }
+                    }
+                    try {
+                        chunk.add(new EncodedRow(rowNumber, encoder.encode(mapping.values(entity))));
+                    } catch (IOException | RuntimeException ex) {
+                        run.reject(rowNumber, ex.getMessage());
+                    }
+                    rowNumber++;
+                    if (chunk.size() == chunkSize) {
+                        copyChunk(connection, copyManager, chunk, run);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    copyChunk(connection, copyManager, chunk, run);
+                }
+            } finally {
+                if (!connection.isClosed()) {
+                    connection.setAutoCommit(autoCommit);
+                }
+            }
+        } catch (SQLException ex) {
+            throw new DataAccessResourceFailureException("Bulk load into " + mapping.tableName()
+                    + " failed after " + run.loaded + " rows", ex);
+        }
+
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Bulk loaded [{}] rows into {} in [{}] chunks ({} rows/s), rejected [{}]",
+                run.loaded, mapping.tableName(), run.chunks, run.loaded * 1000 / millis, run.rejected);
+        return new BulkLoadResult(run.loaded, run.rejected, run.chunks, List.copyOf(run.rejectedRows));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CopyTableMapping<T> mapping(Class<T> entityType) {
+        return (CopyTableMapping<T>) mappings.computeIfAbsent(entityType,
+                type -> CopyTableMapping.of(entityManagerFactory, type));
+    }
+
+    /**
+     * Session on the load's own connection for drawing ids, null when the column default fills them.
+     */
+    private StatelessSession idSession(CopyTableMapping<?> mapping, Connection connection) {
+        if (!mapping.generatesIds()) return null;
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .withStatelessOptions()
+                .connection(connection)
+                .openStatelessSession();
+    }
+
+    private void copyChunk(Connection connection, CopyManager copyManager, List<EncodedRow> chunk, Run run)
+            throws SQLException {
+        try {
+            run.loaded += copyIsolatingRejects(connection, copyManager, chunk, run);
+            connection.commit();
+            run.chunks++;
+        } catch (SQLException ex) {
+            connection.rollback();
+            throw ex;
+        }
+    }
+
+    /**
+     * COPY the rows inside a savepoint; when PostgreSQL refuses them, roll back and retry each
+     * half until the refused rows are isolated.
+     *
+     * @return number of rows copied
+     */
+    private long copyIsolatingRejects(Connection connection, CopyManager copyManager, List<EncodedRow> rows,
+                                      Run run) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            long copied = copy(copyManager, rows, run);
+            connection.releaseSavepoint(savepoint);
+            return copied;
+        } catch (SQLException ex) {
+            if (isConnectionFailure(ex) || connection.isClosed()) throw ex;
+            connection.rollback(savepoint);
+            // rollback keeps the savepoint; released now, or nested bisection piles up subtransactions
+            connection.releaseSavepoint(savepoint);
+            if (rows.size() == 1) {
+                run.reject(rows.get(0).rowNumber(), ex.getMessage());
+                return 0;
+            }
+            int middle = rows.size() / 2;
+            return copyIsolatingRejects(connection, copyManager, rows.subList(0, middle), run)
+                    + copyIsolatingRejects(connection, copyManager, rows.subList(middle, rows.size()), run);
+        }
+    }
+
+    private long copy(CopyManager copyManager, List<EncodedRow> rows, Run run) throws SQLException {
+        CopyIn copyIn = copyManager.copyIn(run.sql);
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(WRITE_BUFFER);
+            buffer.writeBytes(run.encoder.header());
+            for (EncodedRow row : rows) {
+                buffer.writeBytes(row.bytes());
+                if (buffer.size() >= WRITE_BUFFER) {
+                    copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                    buffer.reset();
+                }
+            }
+            buffer.writeBytes(run.encoder.trailer());
+            copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static boolean isConnectionFailure(SQLException ex) {
+        return ex.getSQLState() != null && ex.getSQLState().startsWith("08");
+    }
+
+    private record EncodedRow(long rowNumber, byte[] bytes) {
+    }
+
+    /**
+     * Counters of one {@link #load} call.
+     */
+    private final class Run {
+
+        private final String sql;
+        private final CopyRowEncoder encoder;
+        private final List<BulkLoadResult.RejectedRow> rejectedRows = new ArrayList<>();
+        private long loaded;
+        private long rejected;
+        private int chunks;
+
+        private Run(String sql, CopyRowEncoder encoder) {
+            this.sql = sql;
+            this.encoder = encoder;
+        }
+
+        private void reject(long rowNumber, String reason) {
+            rejected++;
+            if (rejectedRows.size() < maxReportedRejects) {
+                rejectedRows.add(new BulkLoadResult.RejectedRow(rowNumber, reason));
+            }
+        }
+    }
+}
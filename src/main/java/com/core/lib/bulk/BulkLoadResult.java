@@ -0,0 +1,21 @@
+package com.core.lib.bulk;
+
+import java.util.List;
+
+/**
+ * Outcome of a {@link BulkCopyLoader} run.
+ *
+ * @param loaded        rows committed
+ * @param rejected      rows skipped because they could not be encoded or were refused by PostgreSQL
+ * @param chunks        committed chunks
+ * @param rejectedRows  the first rejected rows, up to {@code corelib.bulk.max-reported-rejects}
+ */
+public record BulkLoadResult(long loaded, long rejected, int chunks, List<RejectedRow> rejectedRows) {
+
+    /**
+     * @param rowNumber position of the row in the input, starting at 0
+     * @param reason    why it was rejected
+     */
+    public record RejectedRow(long rowNumber, String reason) {
+    }
+}
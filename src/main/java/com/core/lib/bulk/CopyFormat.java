@@ -0,0 +1,13 @@
+package com.core.lib.bulk;
+
+/**
+ * Wire format of a PostgreSQL {@code COPY ... FROM STDIN}.
+ * <p>
+ * BINARY is the fastest to parse for the server but needs the column types Hibernate generates
+ * for the mapped Java types (e.g. {@code float8} for {@code Double}); CSV is converted by the
+ * server and also loads into {@code numeric} or {@code text} columns.
+ */
+public enum CopyFormat {
+    CSV,
+    BINARY
+}
@@ -0,0 +1,132 @@
+package com.core.lib.bulk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Encodes rows for {@code COPY ... FROM STDIN} in CSV or PostgreSQL binary format.
+ * <p>
+ * Rows are encoded on their own, so a value that cannot be encoded rejects only its row.
+ */
+abstract class CopyRowEncoder {
+
+    private static final LocalDateTime POSTGRES_EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final LocalDate POSTGRES_EPOCH_DATE = POSTGRES_EPOCH.toLocalDate();
+    private static final byte[] BINARY_HEADER = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0,
+            0, 0, 0, 0, 0, 0, 0, 0};
+    private static final byte[] BINARY_TRAILER = {(byte) 0xFF, (byte) 0xFF};
+    private static final Set<Class<?>> BINARY_TYPES = Set.of(String.class, Long.class, long.class, Integer.class,
+            int.class, Short.class, short.class, Double.class, double.class, Float.class, float.class,
+            Boolean.class, boolean.class, Instant.class, OffsetDateTime.class, LocalDateTime.class,
+            LocalDate.class, UUID.class);
+
+    static CopyRowEncoder of(CopyFormat format, List<CopyTableMapping.CopyColumn> columns) {
+        if (format == CopyFormat.CSV) return new Csv();
+        for (CopyTableMapping.CopyColumn column : columns) {
+            if (!BINARY_TYPES.contains(column.javaType())) {
+                throw new IllegalArgumentException("Binary COPY does not support column [" + column.name()
+                        + "] of type " + column.javaType().getSimpleName() + ", use CSV");
+            }
+        }
+        return new Binary();
+    }
+
+    byte[] header() {
+        return new byte[0];
+    }
+
+    byte[] trailer() {
+        return new byte[0];
+    }
+
+    abstract byte[] encode(Object[] values) throws IOException;
+
+    private static final class Csv extends CopyRowEncoder {
+
+        @Override
+        byte[] encode(Object[] values) {
+            StringBuilder line = new StringBuilder(values.length * 16);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) line.append(',');
+                Object value = values[i];
+                if (value == null) continue; // unquoted empty field is NULL
+                String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+                line.append('"').append(text.replace("\"", "\"\"")).append('"');
+            }
+            return line.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Binary extends CopyRowEncoder {
+
+        @Override
+        byte[] header() {
+            return BINARY_HEADER;
+        }
+
+        @Override
+        byte[] trailer() {
+            return BINARY_TRAILER;
+        }
+
+        @Override
+        byte[] encode(Object[] values) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(values.length * 12);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeShort(values.length);
+            for (Object value : values) {
+                switch (value) {
+                    case null -> out.writeInt(-1);
+                    case String text -> {
+                        if (text.indexOf('\0') >= 0) {
+                            throw new IOException("Text values cannot contain NUL characters");
+                        }
+                        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+                        out.writeInt(utf8.length);
+                        out.write(utf8);
+                    }
+                    case Long number -> field(out, 8).writeLong(number);
+                    case Integer number -> field(out, 4).writeInt(number);
+                    case Short number -> field(out, 2).writeShort(number);
+                    case Double number -> field(out, 8).writeDouble(number);
+                    case Float number -> field(out, 4).writeFloat(number);
+                    case Boolean flag -> field(out, 1).writeBoolean(flag);
+                    case Instant instant -> field(out, 8).writeLong(micros(instant.atOffset(ZoneOffset.UTC).toLocalDateTime()));
+                    case OffsetDateTime time -> field(out, 8).writeLong(micros(time.withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime()));
+                    case LocalDateTime time -> field(out, 8).writeLong(micros(time));
+                    case LocalDate date -> field(out, 4).writeInt((int) ChronoUnit.DAYS.between(POSTGRES_EPOCH_DATE, date));
+                    case UUID uuid -> {
+                        field(out, 16).writeLong(uuid.getMostSignificantBits());
+                        out.writeLong(uuid.getLeastSignificantBits());
+                    }
+                    default -> throw new IOException("Unsupported binary COPY value " + value.getClass().getName());
+                }
+            }
+            return bytes.toByteArray();
+        }
+
+        private static DataOutputStream field(DataOutputStream out, int length) throws IOException {
+            out.writeInt(length);
+            return out;
+        }
+
+        /**
+         * Microseconds since 2000-01-01 00:00, the PostgreSQL timestamp representation.
+         */
+        private static long micros(LocalDateTime time) {
+            return ChronoUnit.MICROS.between(POSTGRES_EPOCH, time);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.core.lib.bulk;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Table and columns of an entity as Hibernate maps them.
+ * <p>
+ * The metadata is read from the Hibernate metamodel rather than duplicated, so the COPY path
+ * follows the {@code @Table}/{@code @Column} annotations and the naming strategy exactly like
+ * the JPA path does. Ids of {@code @SequenceGenerator} entities are drawn through Hibernate's own
+ * generator, so COPY reserves them in allocation-size blocks like the JPA path and the id column
+ * is written explicitly. Other ids are left to the column default. Only single-column basic
+ * attributes are supported.
+ */
+public final class CopyTableMapping<T> {
+
+    private final Class<T> entityType;
+    private final EntityPersister persister;
+    private final String tableName;
+    private final List<CopyColumn> columns;
+    private final SequenceStyleGenerator idGenerator;
+
+    private CopyTableMapping(Class<T> entityType, EntityPersister persister, String tableName,
+                             List<CopyColumn> columns, SequenceStyleGenerator idGenerator) {
+        this.entityType = entityType;
+        this.persister = persister;
+        this.tableName = tableName;
+        this.columns = columns;
+        this.idGenerator = idGenerator;
+    }
+
+    public static <T> CopyTableMapping<T> of(EntityManagerFactory entityManagerFactory, Class<T> entityType) {
+        EntityPersister persister = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(entityType);
+        if (!(persister instanceof AbstractEntityPersister mapped)) {
+            throw new IllegalArgumentException("Unsupported persister for " + entityType.getName());
+        }
+
+        String[] properties = mapped.getPropertyNames();
+        boolean[] nullability = mapped.getPropertyNullability();
+        boolean[] insertability = mapped.getPropertyInsertability();
+        List<CopyColumn> columns = new ArrayList<>(properties.length + 1);
+        SequenceStyleGenerator idGenerator = mapped.getGenerator() instanceof SequenceStyleGenerator sequence
+                ? sequence : null;
+        if (idGenerator != null) {
+            columns.add(new CopyColumn(mapped.getIdentifierColumnNames()[0], mapped.getIdentifierPropertyName(),
+                    CopyColumn.ID, mapped.getIdentifierType().getReturnedClass(), false, false));
+        }
+        for (int i = 0; i < properties.length; i++) {
+            if (!insertability[i]) continue;
+            String[] columnNames = mapped.getPropertyColumnNames(i);
+            Class<?> javaType = mapped.getPropertyTypes()[i].getReturnedClass();
+            if (columnNames.length != 1 || mapped.getPropertyTypes()[i].isAssociationType()) {
+                throw new IllegalArgumentException("Cannot COPY attribute [" + properties[i] + "] of "
+                        + entityType.getName() + ", only single-column basic attributes are supported");
+            }
+            Field field = ReflectionUtils.findField(entityType, properties[i]);
+            boolean creationTimestamp = field != null
+                    && AnnotatedElementUtils.hasAnnotation(field, CreationTimestamp.class);
+            columns.add(new CopyColumn(columnNames[0], properties[i], i, javaType, nullability[i], creationTimestamp));
+        }
+        return new CopyTableMapping<>(entityType, persister, mapped.getTableName(), List.copyOf(columns), idGenerator);
+    }
+
+    public Class<T> entityType() {
+        return entityType;
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    public List<CopyColumn> columns() {
+        return columns;
+    }
+
+    /**
+     * Whether ids are drawn by {@link #assignId} rather than by the column default.
+     */
+    public boolean generatesIds() {
+        return idGenerator != null;
+    }
+
+    /**
+     * Give {@code entity} an id from the entity's sequence generator unless it already has one.
+     * The pooled optimizer hands out a block per {@code nextval}, so only one row in
+     * {@code allocationSize} costs a round trip.
+     */
+    public void assignId(T entity, SharedSessionContractImplementor session) {
+        if (idGenerator == null || persister.getIdentifierMapping().getIdentifier(entity) != null) return;
+        persister.setIdentifier(entity, idGenerator.generate(session, entity), session);
+    }
+
+    public String copySql(CopyFormat format) {
+        return "COPY " + tableName
+                + columns.stream().map(CopyColumn::name).collect(Collectors.joining(", ", " (", ")"))
+                + " FROM STDIN WITH (FORMAT " + format.name().toLowerCase() + ")";
+    }
+
+    /**
+     * Column values of {@code entity}, in {@link #columns()} order. {@code @CreationTimestamp}
+     * attributes left null are set to the current time, as Hibernate would on insert.
+     *
+     * @throws IllegalArgumentException when a non-nullable column has no value
+     */
+    public Object[] values(T entity) {
+        Object[] properties = persister.getValues(entity);
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            CopyColumn column = columns.get(i);
+            Object value = column.propertyIndex() == CopyColumn.ID
+                    ? persister.getIdentifierMapping().getIdentifier(entity)
+                    : properties[column.propertyIndex()];
+            if (value == null && column.creationTimestamp()) {
+                value = now(column.javaType());
+            }
+            if (value == null && !column.nullable()) {
+                throw new IllegalArgumentException("Column [" + column.name() + "] must not be null");
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+
+    private static Object now(Class<?> type) {
+        if (type == LocalDateTime.class) return LocalDateTime.now();
+        if (type == Instant.class) return Instant.now();
+        if (type == OffsetDateTime.class) return OffsetDateTime.now();
+        if (type == LocalDate.class) return LocalDate.now();
+        return null;
+    }
+
+    /**
+     * @param name              column name as Hibernate renders it in SQL
+     * @param property          entity attribute
+     * @param propertyIndex     index of the attribute in the Hibernate persister, {@link #ID} for the id
+     * @param javaType          attribute type
+     * @param nullable          whether the column accepts null
+     * @param creationTimestamp whether the attribute is a {@code @CreationTimestamp}
+     */
+    public record CopyColumn(String name, String property, int propertyIndex, Class<?> javaType,
+                             boolean nullable, boolean creationTimestamp) {
+
+        static final int ID = -1;
+    }
+}
@@ -0,0 +1,133 @@
+package com.core.lib.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Shared TTL resolution, invalidation stamping and hit/miss counting for near cache implementations.
+ * <p>
+ * Invalidations are versioned per field (in {@value #VERSION_STRIPES} stripes), per hash and for
+ * the whole cache, so a write to one field only prevents concurrent reads of that field (or of a
+ * field sharing its stripe) from filling the cache; other fields and hashes are not affected.
+ */
+public abstract class AbstractNearCache implements NearCache {
+
+    protected final long maxSize;
+
+    private final Function<String, Duration> ttlResolver;
+    private final ConcurrentMap<String, Duration> ttlByHash = new ConcurrentHashMap<>();
+
+    private static final int VERSION_STRIPES = 4096;
+
+    private final AtomicLongArray fieldVersions = new AtomicLongArray(VERSION_STRIPES);
+    private final ConcurrentMap<String, AtomicLong> hashVersions = new ConcurrentHashMap<>();
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxSize     maximum number of entries across all hashes
+     * @param ttlResolver TTL per hash name; zero or negative disables caching for that hash
+     */
+    protected AbstractNearCache(long maxSize, Function<String, Duration> ttlResolver) {
+        this.maxSize = maxSize;
+        this.ttlResolver = ttlResolver;
+    }
+
+    @Override
+    public <T> Optional<T> get(String hashName, String key, Class<T> clazz) {
+        if (!isCached(hashName)) {
+            return Optional.empty();
+        }
+        Object value = lookup(new NearCacheKey(hashName, key));
+        if (clazz.isInstance(value)) {
+            hits.increment();
+            return Optional.of(clazz.cast(value));
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    @Override
+    public long stamp(String hashName, String key) {
+        // all counters only grow, so their sum changes whenever any one does
+        return fieldVersions.get(stripe(hashName, key)) + hashVersion(hashName).get() + globalVersion.get();
+    }
+
+    @Override
+    public void put(String hashName, String key, Object value, long stamp) {
+        if (value == null || !isCached(hashName) || stamp(hashName, key) != stamp) {
+            return;
+        }
+        NearCacheKey cacheKey = new NearCacheKey(hashName, key);
+        store(cacheKey, value);
+        if (stamp(hashName, key) != stamp) {
+            remove(cacheKey); // invalidated while storing
+        }
+    }
+
+    @Override
+    public void invalidate(String hashName, String key) {
+        fieldVersions.incrementAndGet(stripe(hashName, key));
+        remove(new NearCacheKey(hashName, key));
+    }
+
+    @Override
+    public void invalidateHash(String hashName) {
+        hashVersion(hashName).incrementAndGet();
+        removeHash(hashName);
+    }
+
+    @Override
+    public void invalidateAll() {
+        globalVersion.incrementAndGet();
+        removeAll();
+    }
+
+    @Override
+    public boolean isCached(String hashName) {
+        Duration ttl = ttl(hashName);
+        return !ttl.isZero() && !ttl.isNegative();
+    }
+
+    @Override
+    public NearCacheStats stats() {
+        return new NearCacheStats(hits.sum(), misses.sum(), evictionCount(), size());
+    }
+
+    /**
+     * Resolved (and memoized) TTL of a hash.
+     */
+    protected Duration ttl(String hashName) {
+        return ttlByHash.computeIfAbsent(hashName,
+                name -> Optional.ofNullable(ttlResolver.apply(name)).orElse(Duration.ZERO));
+    }
+
+    private AtomicLong hashVersion(String hashName) {
+        return hashVersions.computeIfAbsent(hashName, ignored -> new AtomicLong());
+    }
+
+    private static int stripe(String hashName, String key) {
+        return ((31 * hashName.hashCode() + key.hashCode()) & Integer.MAX_VALUE) % VERSION_STRIPES;
+    }
+
+    protected abstract Object lookup(NearCacheKey cacheKey);
+
+    protected abstract void store(NearCacheKey cacheKey, Object value);
+
+    protected abstract void remove(NearCacheKey cacheKey);
+
+    protected abstract void removeHash(String hashName);
+
+    protected abstract void removeAll();
+
+    protected abstract long evictionCount();
+
+    protected abstract long size();
+}
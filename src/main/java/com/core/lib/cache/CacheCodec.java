@@ -0,0 +1,26 @@
+package com.core.lib.cache;
+
+import java.io.IOException;
+
+/**
+ * Encodes cached values to bytes and back.
+ * <p>
+ * Implementations are selected per hash name by {@link CacheValueCodec}. The {@link #id()} is
+ * written into the header byte of every stored value, so it must never change once data exists.
+ */
+public interface CacheCodec {
+
+    /**
+     * Stable identifier stored in the value header, between 0 and 15.
+     */
+    byte id();
+
+    /**
+     * Name used in configuration, e.g. {@code json} or {@code smile}.
+     */
+    String name();
+
+    byte[] encode(Object value) throws IOException;
+
+    <T> T decode(byte[] bytes, int offset, int length, Class<T> clazz) throws IOException;
+}
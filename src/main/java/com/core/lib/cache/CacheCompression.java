@@ -0,0 +1,55 @@
+package com.core.lib.cache;
+
+import com.github.luben.zstd.Zstd;
+import net.jpountz.lz4.LZ4Factory;
+
+/**
+ * Compression applied to encoded values above the configured size threshold.
+ * The ordinal-independent {@link #id} is stored in the value header.
+ */
+public enum CacheCompression {
+
+    NONE(0),
+    LZ4(1),
+    ZSTD(2);
+
+    private static final LZ4Factory LZ4_FACTORY = LZ4Factory.fastestInstance();
+    private static final int ZSTD_LEVEL = 3;
+
+    private final int id;
+
+    CacheCompression(int id) {
+        this.id = id;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public static CacheCompression fromId(int id) {
+        for (CacheCompression compression : values()) {
+            if (compression.id == id) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("Unknown cache compression id " + id);
+    }
+
+    byte[] compress(byte[] source) {
+        return switch (this) {
+            case NONE -> source;
+            case LZ4 -> LZ4_FACTORY.fastCompressor().compress(source);
+            case ZSTD -> Zstd.compress(source, ZSTD_LEVEL);
+        };
+    }
+
+    byte[] decompress(byte[] source, int offset, int length, int originalLength) {
+        byte[] target = new byte[originalLength];
+        switch (this) {
+            case NONE -> System.arraycopy(source, offset, target, 0, length);
+            case LZ4 -> LZ4_FACTORY.fastDecompressor().decompress(source, offset, target, 0, originalLength);
+            case ZSTD -> Zstd.decompressByteArray(target, 0, originalLength, source, offset, length);
+        }
+        return target;
+    }
+}
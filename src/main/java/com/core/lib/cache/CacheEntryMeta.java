@@ -0,0 +1,49 @@
+package com.core.lib.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load metadata kept next to a value written by {@code getOrLoad}, used for
+ * probabilistic early refresh (XFetch).
+ *
+ * @param expiresAtMillis logical expiry in epoch milliseconds
+ * @param deltaMillis     time the last load took
+ */
+public record CacheEntryMeta(long expiresAtMillis, long deltaMillis) {
+
+    /**
+     * Whether the entry is past its logical expiry.
+     */
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    /**
+     * XFetch decision: refresh ahead of expiry with a probability that grows as expiry
+     * approaches and with the cost of the load. {@code beta} above 1 favours earlier refreshes.
+     */
+    public boolean shouldRefreshEarly(long nowMillis, double beta) {
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        return nowMillis - deltaMillis * beta * Math.log(random) >= expiresAtMillis;
+    }
+
+    public byte[] encode() {
+        return (expiresAtMillis + ":" + deltaMillis).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parse stored metadata, {@code null} when absent or unreadable.
+     */
+    public static CacheEntryMeta parse(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        String[] parts = new String(bytes, StandardCharsets.UTF_8).split(":");
+        try {
+            return new CacheEntryMeta(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.core.lib.cache;
+
+import java.util.List;
+
+/**
+ * Invalidation message exchanged between nodes over Redis pub/sub.
+ *
+ * @param origin            id of the publishing node, used to skip our own events
+ * @param hashName          Redis hash that changed
+ * @param keys              changed fields, {@code null} when the whole hash was cleared
+ * @param publishedAtMicros wall-clock publish time in epoch microseconds, used for latency tracking
+ */
+public record CacheInvalidationEvent(String origin, String hashName, List<String> keys, long publishedAtMicros) {
+}
@@ -0,0 +1,192 @@
+package com.core.lib.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer meters of the cache providers.
+ * <p>
+ * Meters are tagged with the hash name. To keep tag cardinality bounded, only the first
+ * {@code corelib.cache.metrics.max-hash-tags} hash names get their own tag value, further hashes
+ * are reported as {@value #OTHER_HASH}. Exception tags use the simple class name.
+ * <p>
+ * Meters go to the application's {@link MeterRegistry}, or to the global registry when there is none.
+ */
+@Component
+public class CacheMetrics {
+
+    public static final String OP_GET = "get";
+    public static final String OP_MULTI_GET = "multi_get";
+    public static final String OP_GET_ALL = "get_all";
+    public static final String OP_SCAN = "scan";
+    public static final String OP_LOAD = "load";
+    public static final String OP_PUT = "put";
+    public static final String OP_PUT_ALL = "put_all";
+    public static final String OP_DELETE = "delete";
+    public static final String OP_CLEAR = "clear";
+
+    /** Hash tag of operations spanning several hashes in one pipeline. */
+    public static final String MULTI_HASH = "_pipeline";
+    public static final String OTHER_HASH = "_other";
+
+    private static final String PREFIX = "corelib.cache.";
+
+    private final MeterRegistry registry;
+    private final int maxHashTags;
+    private final Set<String> hashTags = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<MeterKey, Timer> operationTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MeterKey, Timer> codecTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MeterKey, DistributionSummary> payloadSizes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MeterKey, Counter> lookups = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ErrorKey, Counter> errors = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CacheMetrics(ObjectProvider<MeterRegistry> registry,
+                        @Value("${corelib.cache.metrics.max-hash-tags:100}") Integer maxHashTags) {
+        this(registry.getIfAvailable(() -> Metrics.globalRegistry), maxHashTags);
+    }
+
+    public CacheMetrics(MeterRegistry registry, int maxHashTags) {
+        this.registry = registry;
+        this.maxHashTags = maxHashTags;
+    }
+
+    /**
+     * Record the latency of an operation started at {@code startNanos} ({@link System#nanoTime()}).
+     */
+    public void recordOperation(String operation, String hashName, long startNanos) {
+        operationTimers.computeIfAbsent(new MeterKey(operation, hashTag(hashName)), key ->
+                Timer.builder(PREFIX + "operation")
+                        .description("Latency of cache provider operations")
+                        .tag("operation", key.first())
+                        .tag("hash", key.second())
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record the time spent encoding ({@code "serialize"}) or decoding ({@code "deserialize"}) a value.
+     */
+    public void recordCodec(String direction, String hashName, long startNanos) {
+        codecTimers.computeIfAbsent(new MeterKey(direction, hashTag(hashName)), key ->
+                Timer.builder(PREFIX + "codec")
+                        .description("Time spent serializing and deserializing cached values")
+                        .tag("direction", key.first())
+                        .tag("hash", key.second())
+                        .register(registry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record the stored size of a value written ({@code "write"}) or read ({@code "read"}).
+     */
+    public void recordPayload(String direction, String hashName, int bytes) {
+        payloadSizes.computeIfAbsent(new MeterKey(direction, hashTag(hashName)), key ->
+                DistributionSummary.builder(PREFIX + "payload.size")
+                        .description("Size of cached values as stored in Redis")
+                        .baseUnit("bytes")
+                        .tag("direction", key.first())
+                        .tag("hash", key.second())
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(bytes);
+    }
+
+    public void hits(String hashName, long count) {
+        if (count > 0) lookupCounter("hit", hashName).increment(count);
+    }
+
+    public void misses(String hashName, long count) {
+        if (count > 0) lookupCounter("miss", hashName).increment(count);
+    }
+
+    /**
+     * Count a failed operation, also the ones the provider turns into an empty result.
+     */
+    public void error(String operation, String hashName, Throwable ex) {
+        errors.computeIfAbsent(new ErrorKey(operation, hashTag(hashName), ex.getClass().getSimpleName()), key ->
+                Counter.builder(PREFIX + "errors")
+                        .description("Failed cache provider operations")
+                        .tag("operation", key.operation())
+                        .tag("hash", key.hash())
+                        .tag("exception", key.exception())
+                        .register(registry))
+                .increment();
+    }
+
+    /**
+     * Expose the near cache counters.
+     */
+    public void bindNearCache(NearCache nearCache) {
+        functionCounter("near.hits", nearCache, cache -> cache.stats().hits());
+        functionCounter("near.misses", nearCache, cache -> cache.stats().misses());
+        functionCounter("near.evictions", nearCache, cache -> cache.stats().evictions());
+        Gauge.builder(PREFIX + "near.size", nearCache, cache -> cache.stats().size()).register(registry);
+    }
+
+    /**
+     * Expose the write-behind counters.
+     */
+    public void bindWriteBehind(WriteBehindBuffer writeBehind) {
+        functionCounter("write_behind.offered", writeBehind, buffer -> buffer.stats().offered());
+        functionCounter("write_behind.coalesced", writeBehind, buffer -> buffer.stats().coalesced());
+        functionCounter("write_behind.flushed", writeBehind, buffer -> buffer.stats().flushed());
+        functionCounter("write_behind.dropped", writeBehind, buffer -> buffer.stats().dropped());
+        Gauge.builder(PREFIX + "write_behind.pending", writeBehind, buffer -> buffer.stats().pending())
+                .register(registry);
+    }
+
+    /**
+     * Expose the circuit breaker state (0 closed, 1 half-open, 2 open) and rejected calls.
+     */
+    public void bindCircuitBreaker(RedisCircuitBreaker circuitBreaker) {
+        Gauge.builder(PREFIX + "circuit.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .register(registry);
+        functionCounter("circuit.rejected", circuitBreaker, RedisCircuitBreaker::rejectedCalls);
+    }
+
+    private Counter lookupCounter(String result, String hashName) {
+        return lookups.computeIfAbsent(new MeterKey(result, hashTag(hashName)), key ->
+                Counter.builder(PREFIX + "gets")
+                        .description("Cache lookups by result")
+                        .tag("result", key.first())
+                        .tag("hash", key.second())
+                        .register(registry));
+    }
+
+    private <T> void functionCounter(String name, T source, ToDoubleFunction<T> value) {
+        FunctionCounter.builder(PREFIX + name, source, value).register(registry);
+    }
+
+    private String hashTag(String hashName) {
+        if (hashName == null) return OTHER_HASH;
+        if (hashTags.contains(hashName)) return hashName;
+        if (hashTags.size() < maxHashTags) {
+            hashTags.add(hashName);
+            return hashName;
+        }
+        return OTHER_HASH;
+    }
+
+    private record MeterKey(String first, String second) {
+    }
+
+    private record ErrorKey(String operation, String hash, String exception) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.core.lib.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Frames cached values with a one-byte header so several formats can live in Redis side by side.
+ * <p>
+ * Header layout: {@code 1 0 c c i i i i} where {@code cc} is the {@link CacheCompression} id and
+ * {@code iiii} the {@link CacheCodec} id. Compressed values carry their original length as a
+ * 4-byte int right after the header. Header bytes are 0x80-0xBF, which never start a JSON document,
+ * so values written before codecs existed (plain JSON) are still read as JSON. Changing the codec
+ * of a hash only affects new writes, existing values keep decoding with their own codec.
+ */
+public class CacheValueCodec {
+
+    private static final int HEADER_FLAG = 0x80;
+    private static final int HEADER_MASK = 0xC0;
+
+    private final CacheCodec[] codecsById = new CacheCodec[16];
+    private final Map<String, CacheCodec> codecsByName = new ConcurrentHashMap<>();
+    private final Map<String, CacheCodec> codecsByHash = new ConcurrentHashMap<>();
+    private final CacheCodec legacyCodec;
+    private final Function<String, String> codecNameResolver;
+    private final CacheCompression compression;
+    private final int compressionThreshold;
+
+    /**
+     * @param codecs               every codec that may be found in stored values
+     * @param legacyCodec          codec used for values without header
+     * @param codecNameResolver    codec name per hash name
+     * @param compression          compression applied to large values
+     * @param compressionThreshold encoded size in bytes from which values are compressed
+     */
+    public CacheValueCodec(Collection<CacheCodec> codecs, CacheCodec legacyCodec,
+                           Function<String, String> codecNameResolver,
+                           CacheCompression compression, int compressionThreshold) {
+        for (CacheCodec codec : codecs) {
+            codecsById[codec.id()] = codec;
+            codecsByName.put(codec.name(), codec);
+        }
+        this.legacyCodec = legacyCodec;
+        this.codecNameResolver = codecNameResolver;
+        this.compression = compression;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Encode a value with the codec configured for its hash, compressing it when large enough.
+     */
+    public byte[] encode(String hashName, Object value) throws IOException {
+        CacheCodec codec = codecFor(hashName);
+        byte[] payload = codec.encode(value);
+        if (compression == CacheCompression.NONE || payload.length < compressionThreshold) {
+            return ByteBuffer.allocate(1 + payload.length)
+                    .put(header(CacheCompression.NONE, codec))
+                    .put(payload)
+                    .array();
+        }
+        byte[] compressed = compression.compress(payload);
+        return ByteBuffer.allocate(1 + Integer.BYTES + compressed.length)
+                .put(header(compression, codec))
+                .putInt(payload.length)
+                .put(compressed)
+                .array();
+    }
+
+    /**
+     * Decode a stored value, whatever codec and compression it was written with.
+     */
+    public <T> T decode(byte[] bytes, Class<T> clazz) throws IOException {
+        int header = bytes.length > 0 ? bytes[0] & 0xFF : 0;
+        if ((header & HEADER_MASK) != HEADER_FLAG) {
+            return legacyCodec.decode(bytes, 0, bytes.length, clazz);
+        }
+        CacheCodec codec = codecsById[header & 0x0F];
+        if (codec == null) {
+            throw new IOException("No cache codec registered for id " + (header & 0x0F));
+        }
+        CacheCompression valueCompression = CacheCompression.fromId((header >> 4) & 0x03);
+        if (valueCompression == CacheCompression.NONE) {
+            return codec.decode(bytes, 1, bytes.length - 1, clazz);
+        }
+        int originalLength = ByteBuffer.wrap(bytes, 1, Integer.BYTES).getInt();
+        int offset = 1 + Integer.BYTES;
+        byte[] payload = valueCompression.decompress(bytes, offset, bytes.length - offset, originalLength);
+        return codec.decode(payload, 0, payload.length, clazz);
+    }
+
+    private CacheCodec codecFor(String hashName) {
+        return codecsByHash.computeIfAbsent(hashName, name -> {
+            CacheCodec codec = codecsByName.get(codecNameResolver.apply(name));
+            return codec != null ? codec : legacyCodec;
+        });
+    }
+
+    private static byte header(CacheCompression compression, CacheCodec codec) {
+        return (byte) (HEADER_FLAG | compression.id() << 4 | codec.id());
+    }
+}
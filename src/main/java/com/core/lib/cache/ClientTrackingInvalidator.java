@@ -0,0 +1,140 @@
+package com.core.lib.cache;
+
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushListener;
+import io.lettuce.core.codec.StringCodec;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Drops near cache hashes on RESP3 client-side tracking pushes.
+ * <p>
+ * Opens a dedicated connection in broadcasting mode
+ * ({@code CLIENT TRACKING ON BCAST PREFIX ... NOLOOP}), so the server reports writes from any
+ * client, including ones that do not publish pub/sub events. Tracking is restricted to the
+ * prefixes of the near-cached hashes; without prefixes every key of the database would be
+ * reported, so tracking is not enabled. Redis tracks whole keys, never hash fields: a push for a
+ * near-cached hash drops that hash, while pushes for other keys matching a prefix (e.g. the
+ * {@code :meta} companions) are ignored. Field-level invalidation of this library's own writes
+ * comes from the pub/sub channel. When the server does not speak RESP3 or the topology is not
+ * standalone, tracking is skipped and pub/sub remains the only channel.
+ * <p>
+ * Tracking state lives on the server connection, so it is lost when Lettuce reconnects. The
+ * connection is watched: when it drops, the whole near cache is invalidated (pushes sent in the
+ * meantime are never replayed), and once it is back tracking is enabled again and the near cache
+ * is invalidated once more.
+ */
+@Log4j2
+public class ClientTrackingInvalidator implements InitializingBean, DisposableBean, RedisConnectionStateListener {
+
+    private final LettuceConnectionFactory connectionFactory;
+    private final NearCache nearCache;
+    private final String[] prefixes;
+
+    private RedisClient redisClient;
+    private volatile StatefulRedisConnection<String, String> connection;
+
+    public ClientTrackingInvalidator(LettuceConnectionFactory connectionFactory, NearCache nearCache,
+                                     String[] prefixes) {
+        this.connectionFactory = connectionFactory;
+        this.nearCache = nearCache;
+        this.prefixes = prefixes;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (prefixes.length == 0) {
+            log.warn("Client-side tracking needs the prefixes of the near-cached hashes "
+                    + "(corelib.cache.near.invalidation.tracking-prefixes), using pub/sub invalidation only");
+            return;
+        }
+        if (!(connectionFactory.getNativeClient() instanceof RedisClient redisClient)) {
+            log.warn("Client-side tracking is only supported on standalone Redis, using pub/sub invalidation only");
+            return;
+        }
+        try {
+            this.redisClient = redisClient;
+            connection = redisClient.connect(StringCodec.UTF8);
+            connection.addListener((PushListener) message -> {
+                if ("invalidate".equals(message.getType())) {
+                    onInvalidate(message.getContent());
+                }
+            });
+            connection.sync().clientTracking(trackingArgs());
+            redisClient.addListener(this);
+            log.info("Client-side tracking enabled for near cache invalidation of prefixes {}", List.of(prefixes));
+        } catch (Exception ex) {
+            log.warn("Client-side tracking not available, using pub/sub invalidation only: {}", ex.getMessage());
+            destroy();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (redisClient != null) {
+            redisClient.removeListener(this);
+        }
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+    }
+
+    /**
+     * The client reports every connection it owns, only the tracking connection matters here.
+     */
+    @Override
+    public void onRedisDisconnected(RedisChannelHandler<?, ?> channel) {
+        if (channel != connection) return;
+        log.warn("Client-side tracking connection lost, invalidating the near cache");
+        nearCache.invalidateAll();
+    }
+
+    /**
+     * Runs on the I/O thread after a reconnect, so tracking is re-enabled without waiting for the reply.
+     */
+    @Override
+    public void onRedisConnected(RedisChannelHandler<?, ?> channel, SocketAddress address) {
+        StatefulRedisConnection<String, String> tracked = connection;
+        if (channel != tracked) return;
+        tracked.async().clientTracking(trackingArgs()).whenComplete((reply, ex) -> {
+            nearCache.invalidateAll();
+            if (ex != null) {
+                log.error("Re-enabling client-side tracking after reconnect failed, near cache relies on pub/sub "
+                        + "invalidation only: {}", ex.getMessage());
+            } else {
+                log.info("Client-side tracking re-enabled after reconnect");
+            }
+        });
+    }
+
+    private TrackingArgs trackingArgs() {
+        return TrackingArgs.Builder.enabled().bcast().prefixes(prefixes).noloop();
+    }
+
+    /**
+     * Push payload is {@code ["invalidate", [key, ...]]}, or {@code ["invalidate", null]} on FLUSHALL.
+     */
+    private void onInvalidate(List<Object> content) {
+        if (content.size() < 2 || !(content.get(1) instanceof List<?> keys)) {
+            log.debug("Received tracking flush, near cache entries expire by TTL");
+            return;
+        }
+        for (Object key : keys) {
+            String hashName = key instanceof ByteBuffer buffer ? StringCodec.UTF8.decodeKey(buffer) : String.valueOf(key);
+            if (nearCache.isCached(hashName)) {
+                nearCache.invalidateHash(hashName);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.core.lib.cache;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cross-node lease on a Redis key ({@code SET NX PX}), released only by its owner.
+ * <p>
+ * Used so a single node reloads an expired cache entry. Calls go through the
+ * {@link RedisCircuitBreaker}; when Redis cannot be reached or the breaker rejects the call the
+ * lease is reported as acquired, a duplicate load is preferred over no load at all.
+ */
+@Log4j2
+public class DistributedLease {
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+
+    public DistributedLease(StringRedisTemplate stringRedisTemplate, RedisCircuitBreaker circuitBreaker) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Try to take the lease for {@code lease}; {@code token} identifies the owner on release.
+     */
+    public boolean tryAcquire(String leaseKey, String token, Duration lease) {
+        try {
+            return Boolean.TRUE.equals(circuitBreaker.execute(() ->
+                    stringRedisTemplate.opsForValue().setIfAbsent(leaseKey, token, lease)));
+        } catch (RedisUnavailableException ex) {
+            log.debug("Redis unavailable, loading [{}] without a lease", leaseKey);
+            return true;
+        } catch (Exception ex) {
+            log.error("Error acquiring lease [{}], loading without it: {}", leaseKey, ex.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Release the lease if it is still owned by {@code token}.
+     */
+    public void release(String leaseKey, String token) {
+        try {
+            circuitBreaker.run(() -> stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey), token));
+        } catch (RedisUnavailableException ex) {
+            log.debug("Redis unavailable, lease [{}] will expire on its own", leaseKey);
+        } catch (Exception ex) {
+            log.error("Error releasing lease [{}], it will expire on its own: {}", leaseKey, ex.getMessage());
+        }
+    }
+}
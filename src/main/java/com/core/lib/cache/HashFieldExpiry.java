@@ -0,0 +1,245 @@
+package com.core.lib.cache;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-field expiry for Redis hash entries.
+ * <p>
+ * Uses HPEXPIRE/HPTTL on Redis 7.4+. On older servers the first failing call switches to an
+ * expiry index: a sorted set {@code <hashName>:ttl} scored by expiry time, registered in
+ * {@value #INDEX_REGISTRY}, and a background sweeper that removes expired fields atomically.
+ * In fallback mode a field stays readable until the next sweep ({@code corelib.cache.ttl.sweep-interval}).
+ * <p>
+ * Every node probes HPTTL at startup, so nodes on the same server agree on the mode even when
+ * they never set a TTL themselves. In native mode the sweeper only checks every
+ * {@code corelib.cache.ttl.registry-check} whether another node started an expiry index (e.g. after
+ * a failover to an older server) and then switches to the index as well.
+ * On a Redis cluster the hash and its index must share a slot, e.g. by using a hash tag in the hash name.
+ */
+@Component
+@Log4j2
+public class HashFieldExpiry implements DisposableBean {
+
+    public static final String INDEX_SUFFIX = ":ttl";
+    public static final String INDEX_REGISTRY = "corelib:cache:ttl-index";
+
+    private static final RedisScript<List> SWEEP_SCRIPT = new DefaultRedisScript<>(
+            "local fields = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]) "
+                    + "if #fields > 0 then "
+                    + "redis.call('HDEL', KEYS[1], unpack(fields)) "
+                    + "redis.call('ZREM', KEYS[2], unpack(fields)) "
+                    + "end "
+                    + "return fields",
+            List.class);
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final NearCache nearCache;
+    private final NearCacheInvalidator invalidator;
+    private final Set<String> indexedHashes = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService sweeper;
+
+    private final long registryCheckMillis;
+
+    private volatile boolean nativeExpiry = true;
+    private volatile boolean probed;
+    private long nextRegistryCheck;
+
+    @Value("${corelib.cache.ttl.sweep-batch:500}")
+    private Integer sweepBatch;
+
+    @Autowired
+    public HashFieldExpiry(@Qualifier("cacheRedisTemplate") RedisTemplate<String, byte[]> redisTemplate,
+                           StringRedisTemplate stringRedisTemplate,
+                           ObjectProvider<NearCache> nearCache,
+                           ObjectProvider<NearCacheInvalidator> invalidator,
+                           @Value("${corelib.cache.ttl.sweep-interval:1s}") Duration sweepInterval,
+                           @Value("${corelib.cache.ttl.registry-check:1m}") Duration registryCheck) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.nearCache = nearCache.getIfAvailable();
+        this.invalidator = invalidator.getIfAvailable();
+        this.registryCheckMillis = registryCheck.toMillis();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "corelib-ttl-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = sweepInterval.toMillis();
+        sweeper.scheduleWithFixedDelay(this::sweep, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Expire the given fields of a hash after {@code ttl}.
+     */
+    public void expire(String hashName, Collection<String> keys, Duration ttl) {
+        if (keys.isEmpty()) return;
+        if (nativeExpiry) {
+            try {
+                redisTemplate.execute((RedisCallback<List<Long>>) connection ->
+                        connection.hashCommands().hpExpire(raw(hashName), ttl.toMillis(), raw(keys)));
+                return;
+            } catch (Exception ex) {
+                if (!isUnsupported(ex)) throw ex;
+                useIndex(ex.getMessage());
+            }
+        }
+        double expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        String indexKey = hashName + INDEX_SUFFIX;
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.zSetCommands().zAdd(raw(indexKey), expiresAt, raw(key));
+            }
+            connection.setCommands().sAdd(raw(INDEX_REGISTRY), raw(hashName));
+            return null;
+        });
+        indexedHashes.add(hashName);
+    }
+
+    /**
+     * Remaining time to live of a field, empty when the field does not exist or never expires.
+     */
+    public Optional<Duration> getExpiry(String hashName, String key) {
+        if (nativeExpiry) {
+            try {
+                List<Long> ttls = redisTemplate.execute((RedisCallback<List<Long>>) connection ->
+                        connection.hashCommands().hpTtl(raw(hashName), raw(List.of(key))));
+                Long ttl = ttls != null && !ttls.isEmpty() ? ttls.get(0) : null;
+                return ttl != null && ttl >= 0 ? Optional.of(Duration.ofMillis(ttl)) : Optional.empty();
+            } catch (Exception ex) {
+                if (!isUnsupported(ex)) throw ex;
+                useIndex(ex.getMessage());
+            }
+        }
+        Double expiresAt = stringRedisTemplate.opsForZSet().score(hashName + INDEX_SUFFIX, key);
+        return expiresAt == null
+                ? Optional.empty()
+                : Optional.of(Duration.ofMillis(Math.max(0L, expiresAt.longValue() - System.currentTimeMillis())));
+    }
+
+    /**
+     * Whether the hash has an expiry index, i.e. {@link #forget} and {@link #forgetHash} call Redis.
+     */
+    public boolean isIndexed(String hashName) {
+        return indexedHashes.contains(hashName);
+    }
+
+    /**
+     * Drop fields from the expiry index after they were overwritten without TTL or deleted.
+     * Only hashes found in {@value #INDEX_REGISTRY} or indexed by this node are touched,
+     * whatever this node's own mode.
+     */
+    public void forget(String hashName, Collection<String> keys) {
+        if (keys.isEmpty() || !indexedHashes.contains(hashName)) return;
+        stringRedisTemplate.opsForZSet().remove(hashName + INDEX_SUFFIX, keys.toArray());
+    }
+
+    /**
+     * Drop the whole expiry index of a hash after it was cleared.
+     */
+    public void forgetHash(String hashName) {
+        if (!indexedHashes.remove(hashName)) return;
+        stringRedisTemplate.delete(hashName + INDEX_SUFFIX);
+        stringRedisTemplate.opsForSet().remove(INDEX_REGISTRY, hashName);
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Remove expired fields of every indexed hash, batch by batch, and invalidate them locally.
+     * With native expiry there is nothing to sweep unless another node started an expiry index.
+     */
+    @SuppressWarnings("unchecked")
+    void sweep() {
+        try {
+            if (!probed) probe();
+            if (nativeExpiry && !indexStarted()) return;
+            Set<String> hashNames = stringRedisTemplate.opsForSet().members(INDEX_REGISTRY);
+            if (hashNames == null || hashNames.isEmpty()) return;
+            String now = String.valueOf(System.currentTimeMillis());
+            for (String hashName : hashNames) {
+                indexedHashes.add(hashName);
+                String indexKey = hashName + INDEX_SUFFIX;
+                List<String> expired;
+                do {
+                    expired = stringRedisTemplate.execute(SWEEP_SCRIPT,
+                            List.of(hashName, indexKey), now, String.valueOf(sweepBatch));
+                    if (expired != null && !expired.isEmpty()) {
+                        if (nearCache != null) expired.forEach(key -> nearCache.invalidate(hashName, key));
+                        if (invalidator != null) invalidator.publishAll(hashName, expired);
+                    }
+                } while (expired != null && expired.size() == sweepBatch);
+            }
+        } catch (Exception ex) {
+            log.error("Error sweeping expired hash fields: {}", ex.getMessage());
+        }
+    }
+
+    private void probe() {
+        try {
+            redisTemplate.execute((RedisCallback<List<Long>>) connection ->
+                    connection.hashCommands().hpTtl(raw(INDEX_REGISTRY), raw(List.of("probe"))));
+        } catch (Exception ex) {
+            if (!isUnsupported(ex)) throw ex;
+            useIndex(ex.getMessage());
+        }
+        probed = true;
+    }
+
+    private boolean indexStarted() {
+        long now = System.currentTimeMillis();
+        if (now < nextRegistryCheck) return false;
+        nextRegistryCheck = now + registryCheckMillis;
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(INDEX_REGISTRY))) return false;
+        useIndex("another node registered an expiry index");
+        return true;
+    }
+
+    private void useIndex(String reason) {
+        if (!nativeExpiry) return;
+        nativeExpiry = false;
+        log.warn("Redis hash field expiry unavailable, using the expiry index: {}", reason);
+    }
+
+    private static boolean isUnsupported(Exception ex) {
+        if (ex instanceof UnsupportedOperationException) return true;
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.toLowerCase().contains("unknown command")) return true;
+        }
+        return false;
+    }
+
+    private static byte[] raw(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[][] raw(Collection<String> values) {
+        return values.stream().map(HashFieldExpiry::raw).toArray(byte[][]::new);
+    }
+}
@@ -0,0 +1,11 @@
+package com.core.lib.cache;
+
+/**
+ * Latency counters of remote invalidations received by this node.
+ *
+ * @param received       number of events applied
+ * @param averageMicros  mean publish-to-apply latency in microseconds
+ * @param maxMicros      worst publish-to-apply latency in microseconds
+ */
+public record InvalidationStats(long received, double averageMicros, long maxMicros) {
+}
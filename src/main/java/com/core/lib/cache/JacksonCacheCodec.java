@@ -0,0 +1,71 @@
+package com.core.lib.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.IOException;
+
+/**
+ * {@link CacheCodec} backed by a Jackson {@link ObjectMapper}.
+ * <p>
+ * The binary variants reuse the application mapper configuration (modules, date handling),
+ * only the wire format changes.
+ */
+public class JacksonCacheCodec implements CacheCodec {
+
+    public static final byte JSON_ID = 0;
+    public static final byte SMILE_ID = 1;
+    public static final byte CBOR_ID = 2;
+
+    private final byte id;
+    private final String name;
+    private final ObjectMapper mapper;
+
+    private JacksonCacheCodec(byte id, String name, ObjectMapper mapper) {
+        this.id = id;
+        this.name = name;
+        this.mapper = mapper;
+    }
+
+    /**
+     * JSON text, same format as values written before codecs existed.
+     */
+    public static JacksonCacheCodec json(ObjectMapper objectMapper) {
+        return new JacksonCacheCodec(JSON_ID, "json", objectMapper);
+    }
+
+    /**
+     * Jackson Smile, binary JSON with back-references for repeated property names.
+     */
+    public static JacksonCacheCodec smile(ObjectMapper objectMapper) {
+        return new JacksonCacheCodec(SMILE_ID, "smile", objectMapper.copyWith(new SmileFactory()));
+    }
+
+    /**
+     * CBOR (RFC 8949).
+     */
+    public static JacksonCacheCodec cbor(ObjectMapper objectMapper) {
+        return new JacksonCacheCodec(CBOR_ID, "cbor", objectMapper.copyWith(new CBORFactory()));
+    }
+
+    @Override
+    public byte id() {
+        return id;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return mapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, int offset, int length, Class<T> clazz) throws IOException {
+        return mapper.readValue(bytes, offset, length, clazz);
+    }
+}
@@ -0,0 +1,80 @@
+package com.core.lib.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * LRU near cache backed by an access-ordered {@link LinkedHashMap}.
+ * <p>
+ * All operations synchronize on the map, which is fine for the small, hot hashes
+ * this tier is meant for. Prefer {@link TinyLfuNearCache} for large or highly concurrent use.
+ */
+public class LruNearCache extends AbstractNearCache {
+
+    private final LinkedHashMap<NearCacheKey, Entry> entries;
+    private long evictions;
+
+    public LruNearCache(long maxSize, Function<String, Duration> ttlResolver) {
+        super(maxSize, ttlResolver);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<NearCacheKey, Entry> eldest) {
+                if (size() > LruNearCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    protected synchronized Object lookup(NearCacheKey cacheKey) {
+        Entry entry = entries.get(cacheKey);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtNanos() - System.nanoTime() <= 0) {
+            entries.remove(cacheKey);
+            evictions++;
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    protected synchronized void store(NearCacheKey cacheKey, Object value) {
+        long expiresAt = System.nanoTime() + ttl(cacheKey.hashName()).toNanos();
+        entries.put(cacheKey, new Entry(value, expiresAt));
+    }
+
+    @Override
+    protected synchronized void remove(NearCacheKey cacheKey) {
+        entries.remove(cacheKey);
+    }
+
+    @Override
+    protected synchronized void removeHash(String hashName) {
+        entries.keySet().removeIf(cacheKey -> cacheKey.hashName().equals(hashName));
+    }
+
+    @Override
+    protected synchronized void removeAll() {
+        entries.clear();
+    }
+
+    @Override
+    protected synchronized long evictionCount() {
+        return evictions;
+    }
+
+    @Override
+    protected synchronized long size() {
+        return entries.size();
+    }
+
+    private record Entry(Object value, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.core.lib.cache;
+
+import java.util.Optional;
+
+/**
+ * In-process L1 tier in front of Redis hashes.
+ * <p>
+ * Holds already-deserialized objects, so callers must treat returned values as
+ * read-only. Only hashes with a positive TTL (see {@link AbstractNearCache}) are cached.
+ */
+public interface NearCache {
+
+    /**
+     * Look up a cached value. A value of a different type than {@code clazz} counts as a miss.
+     */
+    <T> Optional<T> get(String hashName, String key, Class<T> clazz);
+
+    /**
+     * Current invalidation stamp of a field. Take it before reading Redis and hand it to
+     * {@link #put(String, String, Object, long)} so a concurrent invalidation wins over the read.
+     */
+    long stamp(String hashName, String key);
+
+    /**
+     * Store a value read from Redis, unless the field or its hash was invalidated since
+     * {@code stamp} was taken.
+     */
+    void put(String hashName, String key, Object value, long stamp);
+
+    /**
+     * Drop a single field.
+     */
+    void invalidate(String hashName, String key);
+
+    /**
+     * Drop every field of a hash.
+     */
+    void invalidateHash(String hashName);
+
+    /**
+     * Drop everything, e.g. after invalidation messages may have been lost.
+     */
+    void invalidateAll();
+
+    /**
+     * Whether the given hash is cached locally at all.
+     */
+    boolean isCached(String hashName);
+
+    /**
+     * Hit/miss/eviction counters.
+     */
+    NearCacheStats stats();
+}
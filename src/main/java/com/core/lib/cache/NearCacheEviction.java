@@ -0,0 +1,17 @@
+package com.core.lib.cache;
+
+/**
+ * Eviction policy of the near cache.
+ */
+public enum NearCacheEviction {
+
+    /**
+     * Least recently used, backed by an access-ordered map.
+     */
+    LRU,
+
+    /**
+     * Window TinyLFU (Caffeine), better hit ratio on skewed read patterns.
+     */
+    TINY_LFU
+}
@@ -0,0 +1,106 @@
+package com.core.lib.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Propagates near cache invalidations to every node over a Redis pub/sub channel.
+ * <p>
+ * Writers publish a {@link CacheInvalidationEvent} after each write; every other node drops
+ * the matching local entries. Events published by this node are ignored because the local
+ * entry was already dropped by the writer.
+ */
+@Log4j2
+public class NearCacheInvalidator implements MessageListener {
+
+    private final NearCache nearCache;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder totalLatencyMicros = new LongAdder();
+    private final LongAccumulator maxLatencyMicros = new LongAccumulator(Math::max, 0L);
+
+    public NearCacheInvalidator(NearCache nearCache, StringRedisTemplate stringRedisTemplate,
+                                ObjectMapper objectMapper, String channel) {
+        this.nearCache = nearCache;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    /**
+     * Tell peers that a field changed, or the whole hash when {@code key} is null.
+     */
+    public void publish(String hashName, String key) {
+        publishAll(hashName, key != null ? List.of(key) : null);
+    }
+
+    /**
+     * Tell peers that several fields of a hash changed, in a single message.
+     * Failures are logged and swallowed, peers then fall back to their local TTL.
+     */
+    public void publishAll(String hashName, Collection<String> keys) {
+        try {
+            CacheInvalidationEvent event = new CacheInvalidationEvent(nodeId, hashName,
+                    keys != null ? List.copyOf(keys) : null, nowMicros());
+            stringRedisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(event));
+        } catch (Exception ex) {
+            log.error("Error publishing invalidation for hashName [{}]: {}", hashName, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            CacheInvalidationEvent event = objectMapper.readValue(message.getBody(), CacheInvalidationEvent.class);
+            if (nodeId.equals(event.origin())) {
+                return;
+            }
+            if (event.keys() == null) {
+                nearCache.invalidateHash(event.hashName());
+            } else {
+                event.keys().forEach(key -> nearCache.invalidate(event.hashName(), key));
+            }
+            long latency = Math.max(0L, nowMicros() - event.publishedAtMicros());
+            received.increment();
+            totalLatencyMicros.add(latency);
+            maxLatencyMicros.accumulate(latency);
+        } catch (Exception ex) {
+            log.error("Error applying near cache invalidation: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Channel this invalidator publishes to and listens on.
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Publish-to-apply latency of remote invalidations seen so far.
+     */
+    public InvalidationStats stats() {
+        long count = received.sum();
+        double average = count == 0 ? 0.0 : (double) totalLatencyMicros.sum() / count;
+        return new InvalidationStats(count, average, maxLatencyMicros.get());
+    }
+
+    private static long nowMicros() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000L;
+    }
+}
@@ -0,0 +1,10 @@
+package com.core.lib.cache;
+
+/**
+ * Identifies a single field of a Redis hash inside the near cache.
+ *
+ * @param hashName Redis hash name
+ * @param key      field inside the hash
+ */
+public record NearCacheKey(String hashName, String key) {
+}
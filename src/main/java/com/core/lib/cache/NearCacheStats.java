@@ -0,0 +1,20 @@
+package com.core.lib.cache;
+
+/**
+ * Point-in-time counters of a {@link NearCache}, used to size the local tier.
+ *
+ * @param hits      lookups answered from the local tier
+ * @param misses    lookups that had to go to Redis
+ * @param evictions entries removed because of size or TTL
+ * @param size      current number of entries
+ */
+public record NearCacheStats(long hits, long misses, long evictions, long size) {
+
+    /**
+     * Ratio of hits over all lookups, 0 when nothing was looked up yet.
+     */
+    public double hitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
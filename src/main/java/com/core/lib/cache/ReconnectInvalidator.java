@@ -0,0 +1,65 @@
+package com.core.lib.cache;
+
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.event.Event;
+import io.lettuce.core.event.connection.ConnectionActivatedEvent;
+import io.lettuce.core.event.connection.ReconnectAttemptEvent;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import reactor.core.Disposable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drops the whole near cache when Lettuce has to reconnect.
+ * <p>
+ * Lettuce resubscribes the pub/sub connection after a reconnect, but invalidations published while
+ * it was down are never replayed, so any near-cached entry may be stale. The near cache is
+ * invalidated when a reconnect starts and once more when a connection comes back, which also
+ * covers entries filled from other connections during the outage. Connection events are not tied
+ * to one connection, so losing any connection of the client drops the near cache.
+ */
+@Log4j2
+public class ReconnectInvalidator implements InitializingBean, DisposableBean {
+
+    private final LettuceConnectionFactory connectionFactory;
+    private final NearCache nearCache;
+    private final AtomicBoolean reconnecting = new AtomicBoolean();
+
+    private Disposable subscription;
+
+    public ReconnectInvalidator(LettuceConnectionFactory connectionFactory, NearCache nearCache) {
+        this.connectionFactory = connectionFactory;
+        this.nearCache = nearCache;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!(connectionFactory.getNativeClient() instanceof AbstractRedisClient client)) {
+            log.warn("No Lettuce client available, the near cache is not invalidated on reconnect");
+            return;
+        }
+        subscription = client.getResources().eventBus().get().subscribe(this::onEvent);
+    }
+
+    @Override
+    public void destroy() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private void onEvent(Event event) {
+        if (event instanceof ReconnectAttemptEvent) {
+            if (reconnecting.compareAndSet(false, true)) {
+                log.warn("Redis connection lost, invalidating the near cache");
+            }
+            nearCache.invalidateAll();
+        } else if (event instanceof ConnectionActivatedEvent && reconnecting.compareAndSet(true, false)) {
+            log.info("Redis connection restored, invalidating the near cache");
+            nearCache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.core.lib.cache;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker in front of the cache providers' Redis calls.
+ * <p>
+ * While closed, the outcome of the last {@code window-size} calls is kept. Once at least
+ * {@code minimum-calls} were seen and the share of failed calls or of calls slower than
+ * {@code slow-call-threshold} reaches its rate threshold, the breaker opens: calls are rejected
+ * with {@link RedisUnavailableException} without touching Redis, so callers get a fast miss
+ * instead of waiting for {@code spring.redis.timeout}. After {@code open-duration} it lets
+ * {@code half-open-calls} probes through; it closes when they all succeed in time and opens
+ * again on the first failing or slow probe.
+ */
+@Component
+@Log4j2
+public class RedisCircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final boolean enabled;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongAdder rejected = new LongAdder();
+
+    // guarded by this
+    private final byte[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private volatile State state = State.CLOSED;
+
+    @Autowired
+    public RedisCircuitBreaker(@Value("${corelib.cache.circuit-breaker.enabled:true}") Boolean enabled,
+                               @Value("${corelib.cache.circuit-breaker.failure-rate-threshold:50}") Integer failureRateThreshold,
+                               @Value("${corelib.cache.circuit-breaker.slow-call-rate-threshold:80}") Integer slowCallRateThreshold,
+                               @Value("${corelib.cache.circuit-breaker.slow-call-threshold:500ms}") Duration slowCallThreshold,
+                               @Value("${corelib.cache.circuit-breaker.window-size:100}") Integer windowSize,
+                               @Value("${corelib.cache.circuit-breaker.minimum-calls:20}") Integer minimumCalls,
+                               @Value("${corelib.cache.circuit-breaker.open-duration:10s}") Duration openDuration,
+                               @Value("${corelib.cache.circuit-breaker.half-open-calls:5}") Integer halfOpenCalls) {
+        this.enabled = enabled;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.outcomes = new byte[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * Run a Redis call through the breaker, recording its outcome.
+     *
+     * @throws RedisUnavailableException when the breaker is open
+     */
+    public <T> T execute(Supplier<T> call) {
+        acquire();
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            onResult(System.nanoTime() - start, false);
+            return result;
+        } catch (RuntimeException ex) {
+            onResult(System.nanoTime() - start, true);
+            throw ex;
+        }
+    }
+
+    /**
+     * Same as {@link #execute(Supplier)} for calls without result.
+     */
+    public void run(Runnable call) {
+        execute(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute(Supplier)}: the call is admitted on subscription and
+     * its outcome recorded when it completes. A cancelled call gives its probe back unrecorded.
+     * Rejected calls fail with {@link RedisUnavailableException}.
+     */
+    public <T> Mono<T> executeAsync(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            AsyncCall outcome = startAsync();
+            return outcome.wrap(call)
+                    .doOnSuccess(ignored -> outcome.complete(false))
+                    .doOnError(ex -> outcome.complete(true))
+                    .doOnCancel(outcome::cancel);
+        });
+    }
+
+    /**
+     * Same as {@link #executeAsync(Supplier)} for streams; the outcome is the latency to the
+     * first element or completion, so long scans are not counted as slow calls.
+     */
+    public <T> Flux<T> executeMany(Supplier<Flux<T>> call) {
+        return Flux.defer(() -> {
+            AsyncCall outcome = startAsync();
+            return outcome.wrap(call)
+                    .doOnNext(ignored -> outcome.complete(false))
+                    .doOnComplete(() -> outcome.complete(false))
+                    .doOnError(ex -> outcome.complete(true))
+                    .doOnCancel(outcome::cancel);
+        });
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Calls rejected without reaching Redis.
+     */
+    public long rejectedCalls() {
+        return rejected.sum();
+    }
+
+    private void acquire() {
+        if (!tryAcquire()) {
+            rejected.increment();
+            throw new RedisUnavailableException("Redis circuit breaker is " + state);
+        }
+    }
+
+    private AsyncCall startAsync() {
+        acquire();
+        return new AsyncCall(System.nanoTime());
+    }
+
+    private void releaseProbe() {
+        if (!enabled) return;
+        synchronized (this) {
+            if (state == State.HALF_OPEN && probesStarted > 0) probesStarted--;
+        }
+    }
+
+    private boolean tryAcquire() {
+        if (!enabled || state == State.CLOSED) return true;
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openNanos) return false;
+                transition(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesStarted >= halfOpenCalls) return false;
+                probesStarted++;
+            }
+            return true;
+        }
+    }
+
+    private void onResult(long durationNanos, boolean failed) {
+        if (!enabled) return;
+        boolean slow = durationNanos >= slowCallNanos;
+        synchronized (this) {
+            switch (state) {
+                case CLOSED -> recordClosed(failed, slow);
+                case HALF_OPEN -> {
+                    if (failed || slow) {
+                        transition(State.OPEN);
+                    } else if (++probesSucceeded >= halfOpenCalls) {
+                        transition(State.CLOSED);
+                    }
+                }
+                case OPEN -> {
+                    // late result of a call started before the breaker opened
+                }
+            }
+        }
+    }
+
+    private void recordClosed(boolean failed, boolean slow) {
+        if (recorded == outcomes.length) {
+            byte evicted = outcomes[next];
+            if ((evicted & FAILED) != 0) failures--;
+            if ((evicted & SLOW) != 0) slowCalls--;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+        if (failed) failures++;
+        if (slow) slowCalls++;
+        next = (next + 1) % outcomes.length;
+
+        if (recorded >= minimumCalls
+                && (failures * 100 >= failureRateThreshold * recorded
+                || slowCalls * 100 >= slowCallRateThreshold * recorded)) {
+            log.warn("Opening Redis circuit breaker: [{}] failed and [{}] slow of the last [{}] calls",
+                    failures, slowCalls, recorded);
+            transition(State.OPEN);
+        }
+    }
+
+    private void transition(State target) {
+        switch (target) {
+            case OPEN -> openedAt = System.nanoTime();
+            case HALF_OPEN -> {
+                probesStarted = 0;
+                probesSucceeded = 0;
+                log.info("Redis circuit breaker half-open, probing with [{}] calls", halfOpenCalls);
+            }
+            case CLOSED -> {
+                Arrays.fill(outcomes, (byte) 0);
+                next = 0;
+                recorded = 0;
+                failures = 0;
+                slowCalls = 0;
+                log.info("Redis circuit breaker closed");
+            }
+        }
+        if (target == State.OPEN && state == State.HALF_OPEN) {
+            log.warn("Redis circuit breaker probe failed, staying open");
+        }
+        state = target;
+    }
+
+    /**
+     * Outcome of one non-blocking call, recorded once.
+     */
+    private final class AsyncCall {
+
+        private final long start;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private AsyncCall(long start) {
+            this.start = start;
+        }
+
+        private <P> P wrap(Supplier<P> call) {
+            try {
+                return call.get();
+            } catch (RuntimeException ex) {
+                cancel();
+                throw ex;
+            }
+        }
+
+        private void complete(boolean failed) {
+            if (done.compareAndSet(false, true)) onResult(System.nanoTime() - start, failed);
+        }
+
+        private void cancel() {
+            if (done.compareAndSet(false, true)) releaseProbe();
+        }
+    }
+}
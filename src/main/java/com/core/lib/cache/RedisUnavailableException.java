@@ -0,0 +1,20 @@
+package com.core.lib.cache;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+
+/**
+ * Thrown instead of calling Redis while the {@link RedisCircuitBreaker} is open.
+ * <p>
+ * It is raised on every rejected call during an outage, so it carries no stack trace.
+ */
+public class RedisUnavailableException extends DataAccessResourceFailureException {
+
+    public RedisUnavailableException(String msg) {
+        super(msg);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
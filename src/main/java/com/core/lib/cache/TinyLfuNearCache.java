@@ -0,0 +1,77 @@
+package com.core.lib.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Window TinyLFU near cache backed by Caffeine, with a per-hash TTL.
+ */
+public class TinyLfuNearCache extends AbstractNearCache {
+
+    private final Cache<NearCacheKey, Object> cache;
+
+    public TinyLfuNearCache(long maxSize, Function<String, Duration> ttlResolver) {
+        super(maxSize, ttlResolver);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<NearCacheKey, Object>() {
+                    @Override
+                    public long expireAfterCreate(NearCacheKey cacheKey, Object value, long currentTime) {
+                        return ttl(cacheKey.hashName()).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(NearCacheKey cacheKey, Object value,
+                                                  long currentTime, long currentDuration) {
+                        return ttl(cacheKey.hashName()).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(NearCacheKey cacheKey, Object value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    protected Object lookup(NearCacheKey cacheKey) {
+        return cache.getIfPresent(cacheKey);
+    }
+
+    @Override
+    protected void store(NearCacheKey cacheKey, Object value) {
+        cache.put(cacheKey, value);
+    }
+
+    @Override
+    protected void remove(NearCacheKey cacheKey) {
+        cache.invalidate(cacheKey);
+    }
+
+    @Override
+    protected void removeHash(String hashName) {
+        cache.asMap().keySet().removeIf(cacheKey -> cacheKey.hashName().equals(hashName));
+    }
+
+    @Override
+    protected void removeAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    protected long evictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    @Override
+    protected long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,270 @@
+package com.core.lib.cache;
+
+import com.core.lib.util.LogRateLimiter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opt-in write-behind buffer for update-heavy hashes.
+ * <p>
+ * Writes to the hashes listed in {@code corelib.cache.write-behind.hashes} are kept in memory,
+ * repeated writes to the same field within {@code corelib.cache.write-behind.window} collapse into
+ * one, and a single background thread flushes them in pipelined batches. At most
+ * {@code max-pending} distinct fields are buffered; when full, {@link #offer} waits up to
+ * {@code offer-timeout} and then reports failure so the caller writes synchronously.
+ * A field stays pending, and readable through {@link #pendingValue}, until Redis confirmed its
+ * write; a failed flush keeps it for the next window. Pending writes are flushed on shutdown,
+ * writes still unflushed then are counted as dropped. A crash loses at most one window of writes.
+ */
+@Component
+@ConditionalOnProperty(name = "corelib.cache.write-behind.enabled", havingValue = "true")
+@Log4j2
+public class WriteBehindBuffer implements DisposableBean {
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final NearCache nearCache;
+    private final NearCacheInvalidator invalidator;
+    private final Set<String> hashNames;
+    private final Semaphore capacity;
+    private final Duration offerTimeout;
+    private final int maxBatch;
+
+    private final ConcurrentHashMap<NearCacheKey, byte[]> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+    private final LogRateLimiter fullBufferLog = new LogRateLimiter(1, Duration.ofSeconds(10));
+
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    @Autowired
+    public WriteBehindBuffer(@Qualifier("cacheRedisTemplate") RedisTemplate<String, byte[]> redisTemplate,
+                             ObjectProvider<NearCache> nearCache,
+                             ObjectProvider<NearCacheInvalidator> invalidator,
+                             @Value("${corelib.cache.write-behind.hashes:}") Set<String> hashNames,
+                             @Value("${corelib.cache.write-behind.window:100ms}") Duration window,
+                             @Value("${corelib.cache.write-behind.max-pending:10000}") Integer maxPending,
+                             @Value("${corelib.cache.write-behind.max-batch:500}") Integer maxBatch,
+                             @Value("${corelib.cache.write-behind.offer-timeout:1s}") Duration offerTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.nearCache = nearCache.getIfAvailable();
+        this.invalidator = invalidator.getIfAvailable();
+        this.hashNames = hashNames;
+        this.capacity = new Semaphore(maxPending);
+        this.offerTimeout = offerTimeout;
+        this.maxBatch = maxBatch;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "corelib-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Whether writes to this hash go through the buffer.
+     */
+    public boolean isBuffered(String hashName) {
+        return hashNames.contains(hashName);
+    }
+
+    /**
+     * Buffer an encoded value. Returns false when the buffer stayed full for the whole offer
+     * timeout; the caller must then write synchronously.
+     */
+    public boolean offer(String hashName, String key, byte[] value) {
+        NearCacheKey field = new NearCacheKey(hashName, key);
+        offered.increment();
+        if (pending.computeIfPresent(field, (ignored, previous) -> value) != null) {
+            coalesced.increment();
+            return true;
+        }
+        try {
+            if (!capacity.tryAcquire(offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                long suppressed = fullBufferLog.tryAcquire(hashName);
+                if (suppressed >= 0) {
+                    log.warn("Write-behind buffer full, writing hashName [{}] synchronously (+{} similar)", hashName, suppressed);
+                }
+                return false;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (pending.put(field, value) != null) {
+            capacity.release();
+            coalesced.increment();
+        }
+        return true;
+    }
+
+    /**
+     * Value waiting to be flushed for a field, so readers in this process see their own writes.
+     */
+    public byte[] pendingValue(String hashName, String key) {
+        return pending.get(new NearCacheKey(hashName, key));
+    }
+
+    /**
+     * Values waiting to be flushed for a hash, by field.
+     */
+    public Map<String, byte[]> pendingValues(String hashName) {
+        Map<String, byte[]> values = new LinkedHashMap<>();
+        pending.forEach((field, value) -> {
+            if (field.hashName().equals(hashName)) values.put(field.key(), value);
+        });
+        return values;
+    }
+
+    /**
+     * Drop a pending write, waiting for a running flush so it cannot overwrite a later delete
+     * or synchronous write.
+     */
+    public void discard(String hashName, String key) {
+        discard(hashName, List.of(key));
+    }
+
+    /**
+     * Drop the pending writes of several fields, see {@link #discard(String, String)}.
+     */
+    public void discard(String hashName, Collection<String> keys) {
+        flushLock.lock();
+        try {
+            for (String key : keys) {
+                if (pending.remove(new NearCacheKey(hashName, key)) != null) capacity.release();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Drop every pending write of a hash, see {@link #discard(String, String)}.
+     */
+    public void discardHash(String hashName) {
+        flushLock.lock();
+        try {
+            pending.keySet().removeIf(field -> {
+                if (!field.hashName().equals(hashName)) return false;
+                capacity.release();
+                return true;
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public WriteBehindStats stats() {
+        return new WriteBehindStats(offered.sum(), coalesced.sum(), flushed.sum(), dropped.sum(), pending.size());
+    }
+
+    @Override
+    public void destroy() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(offerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        while (!pending.isEmpty()) {
+            if (!flush()) break;
+        }
+        if (pending.isEmpty()) {
+            log.info("Write-behind buffer stopped, all writes flushed");
+        } else {
+            dropped.add(pending.size());
+            log.error("Write-behind buffer stopped with [{}] unflushed writes, they are lost", pending.size());
+        }
+    }
+
+    /**
+     * Write the fields pending at the start of the flush in batches of {@code max-batch} fields,
+     * one pipeline per batch. Returns false when a batch failed; its writes stay pending.
+     */
+    boolean flush() {
+        flushLock.lock();
+        try {
+            List<NearCacheKey> fields = new ArrayList<>(pending.keySet());
+            for (int from = 0; from < fields.size(); from += maxBatch) {
+                Map<NearCacheKey, byte[]> batch = snapshot(fields.subList(from, Math.min(from + maxBatch, fields.size())));
+                if (!batch.isEmpty() && !write(batch)) return false;
+            }
+            return true;
+        } catch (Exception ex) {
+            log.error("Error flushing write-behind buffer: {}", ex.getMessage(), ex);
+            return false;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Map<NearCacheKey, byte[]> snapshot(List<NearCacheKey> fields) {
+        Map<NearCacheKey, byte[]> batch = new LinkedHashMap<>();
+        for (NearCacheKey field : fields) {
+            byte[] value = pending.get(field);
+            if (value != null) batch.put(field, value);
+        }
+        return batch;
+    }
+
+    /**
+     * Write a batch and only then drop its fields from {@code pending}, unless a newer value
+     * arrived in the meantime; that one is written by the next flush.
+     */
+    private boolean write(Map<NearCacheKey, byte[]> batch) {
+        Map<String, Map<String, byte[]>> byHash = new LinkedHashMap<>();
+        batch.forEach((field, value) ->
+                byHash.computeIfAbsent(field.hashName(), ignored -> new LinkedHashMap<>()).put(field.key(), value));
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    HashOperations<String, String, byte[]> ops =
+                            ((RedisOperations<String, byte[]>) operations).opsForHash();
+                    byHash.forEach(ops::putAll);
+                    return null;
+                }
+            });
+        } catch (Exception ex) {
+            log.error("Error writing [{}] buffered fields to Redis, retrying next window: {}", batch.size(), ex.getMessage());
+            return false;
+        }
+        batch.forEach((field, value) -> {
+            if (pending.remove(field, value)) capacity.release();
+        });
+        flushed.add(batch.size());
+        byHash.forEach((hashName, values) -> {
+            if (nearCache != null) values.keySet().forEach(key -> nearCache.invalidate(hashName, key));
+            if (invalidator != null) invalidator.publishAll(hashName, values.keySet());
+        });
+        return true;
+    }
+}
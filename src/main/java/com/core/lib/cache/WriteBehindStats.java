@@ -0,0 +1,13 @@
+package com.core.lib.cache;
+
+/**
+ * Counters of the {@link WriteBehindBuffer}.
+ *
+ * @param offered   writes handed to the buffer
+ * @param coalesced writes that replaced a pending value of the same field
+ * @param flushed   fields written to Redis
+ * @param dropped   writes still unflushed at shutdown, i.e. lost
+ * @param pending   fields currently waiting for the next flush
+ */
+public record WriteBehindStats(long offered, long coalesced, long flushed, long dropped, long pending) {
+}
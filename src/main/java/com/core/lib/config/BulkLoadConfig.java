@@ -0,0 +1,36 @@
+package com.core.lib.config;
+
+import com.core.lib.bulk.BulkCopyLoader;
+import com.core.lib.bulk.CopyFormat;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * BulkLoadConfig sets up the PostgreSQL COPY loader for large imports.
+ * <p>
+ * Enabled with {@code corelib.bulk.enabled=true}. {@link BulkCopyLoader} takes the table and
+ * column names from the JPA mapping of the entity, so both paths write the same columns.
+ */
+@Configuration
+@ConditionalOnProperty(name = "corelib.bulk.enabled", havingValue = "true")
+public class BulkLoadConfig {
+
+    @Value("${corelib.bulk.format:BINARY}")
+    private CopyFormat format;
+
+    @Value("${corelib.bulk.chunk-size:50000}")
+    private Integer chunkSize;
+
+    @Value("${corelib.bulk.max-reported-rejects:1000}")
+    private Integer maxReportedRejects;
+
+    @Bean
+    public BulkCopyLoader bulkCopyLoader(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        return new BulkCopyLoader(dataSource, entityManagerFactory, format, chunkSize, maxReportedRejects);
+    }
+}
@@ -0,0 +1,53 @@
+package com.core.lib.config;
+
+import com.core.lib.cache.CacheCodec;
+import com.core.lib.cache.CacheCompression;
+import com.core.lib.cache.CacheValueCodec;
+import com.core.lib.cache.JacksonCacheCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * CacheCodecConfig selects how RedisCacheProvider encodes values.
+ * <p>
+ * The codec is chosen per hash ({@code corelib.cache.codec.hash.<hashName>}) with a global default
+ * ({@code corelib.cache.codec.default}). Values at least {@code corelib.cache.compression.threshold}
+ * bytes long are compressed with {@code corelib.cache.compression.algorithm}.
+ */
+@Configuration
+public class CacheCodecConfig {
+
+    private static final String HASH_CODEC_PREFIX = "corelib.cache.codec.hash.";
+
+    @Value("${corelib.cache.codec.default:json}")
+    private String defaultCodec;
+
+    @Value("${corelib.cache.compression.algorithm:NONE}")
+    private CacheCompression compression;
+
+    @Value("${corelib.cache.compression.threshold:1024}")
+    private Integer compressionThreshold;
+
+    /**
+     * Codec registry shared by the blocking and asynchronous cache providers.
+     */
+    @Bean
+    public CacheValueCodec cacheValueCodec(ObjectMapper objectMapper, Environment environment) {
+        CacheCodec json = JacksonCacheCodec.json(objectMapper);
+        List<CacheCodec> codecs = List.of(json,
+                JacksonCacheCodec.smile(objectMapper),
+                JacksonCacheCodec.cbor(objectMapper));
+
+        if (codecs.stream().noneMatch(codec -> codec.name().equals(defaultCodec))) {
+            throw new IllegalStateException("Unknown cache codec [" + defaultCodec + "]");
+        }
+        return new CacheValueCodec(codecs, json,
+                hashName -> environment.getProperty(HASH_CODEC_PREFIX + hashName, defaultCodec),
+                compression, compressionThreshold);
+    }
+}
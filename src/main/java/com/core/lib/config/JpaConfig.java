@@ -0,0 +1,44 @@
+package com.core.lib.config;
+
+import com.core.lib.util.QueryCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JpaConfig ships the library's Hibernate defaults.
+ * <p>
+ * The entities take their ids from pooled-lo sequences (one round trip per 50 rows), which lets
+ * Hibernate group INSERTs and UPDATEs into JDBC batches of {@code corelib.jpa.batch-size}.
+ * Lazy associations and collections are initialized {@code corelib.jpa.batch-fetch-size} at a
+ * time instead of one query per owner. With {@code corelib.jpa.query-count.enabled=true} the
+ * {@link QueryCounter} is registered so tests can assert statement counts.
+ * Values set by the application under {@code spring.jpa.properties.*} take precedence.
+ */
+@Configuration
+public class JpaConfig {
+
+    @Value("${corelib.jpa.batch-size:50}")
+    private Integer batchSize;
+
+    @Value("${corelib.jpa.batch-fetch-size:100}")
+    private Integer batchFetchSize;
+
+    @Value("${corelib.jpa.query-count.enabled:false}")
+    private Boolean queryCountEnabled;
+
+    @Bean
+    public HibernatePropertiesCustomizer corelibHibernatePropertiesCustomizer() {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+            properties.putIfAbsent("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+            properties.putIfAbsent("hibernate.default_batch_fetch_size", batchFetchSize);
+            if (queryCountEnabled) {
+                properties.computeIfAbsent("hibernate.session_factory.statement_inspector", ignored -> new QueryCounter());
+            }
+        };
+    }
+}
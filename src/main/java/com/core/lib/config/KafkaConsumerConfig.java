@@ -1,18 +1,32 @@
 package com.core.lib.config;
 
+import com.core.lib.kafka.KeyOrderedProcessor;
+import com.core.lib.kafka.TopicTypeResolver;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.mapping.DefaultJackson2JavaTypeMapper;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.ClassUtils;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * KafkaConsumerConfig sets up Kafka consumers for the application.
@@ -21,18 +35,55 @@ import java.util.Map;
  * includes concurrency settings and error handling.
  * <p>
  * The consumer factory uses JsonDeserializer to handle multiple payload types and
- * StringDeserializer for keys.
+ * StringDeserializer for keys. Both consumer factories wrap the value deserializer in an
+ * ErrorHandlingDeserializer, so a record that cannot be deserialized goes to the error handler
+ * (and on to {@code <topic>.DLT} as its original bytes) instead of failing every poll.
+ * <p>
+ * A second, batch-mode factory ({@code batchKafkaListenerContainerFactory}) hands listeners a
+ * whole poll at once and deserializes each topic into its own class
+ * ({@code corelib.kafka.consumer.topic-type.<topic>}), so listeners can bulk-process and bulk-persist.
+ * Batch listeners can hand the records to {@link KeyOrderedProcessor} to process them in parallel
+ * beyond the partition count while keeping the order per key.
  */
 @Configuration
 @EnableKafka
 public class KafkaConsumerConfig {
 
+    private static final String TOPIC_TYPE_PREFIX = "corelib.kafka.consumer.topic-type.";
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String serverAddress;
 
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${corelib.kafka.batch.concurrency:3}")
+    private Integer batchConcurrency;
+
+    @Value("${corelib.kafka.batch.max-poll-records:500}")
+    private Integer batchMaxPollRecords;
+
+    @Value("${corelib.kafka.batch.fetch-min-bytes:65536}")
+    private Integer batchFetchMinBytes;
+
+    @Value("${corelib.kafka.batch.fetch-max-wait:500ms}")
+    private Duration batchFetchMaxWait;
+
+    @Value("${corelib.kafka.parallel.max-in-flight:256}")
+    private Integer parallelMaxInFlight;
+
+    @Value("${corelib.kafka.parallel.virtual-threads:true}")
+    private Boolean parallelVirtualThreads;
+
+    @Value("${corelib.threads.virtual.enabled:${spring.threads.virtual.enabled:false}}")
+    private Boolean virtualThreads;
+
+    @Value("${corelib.kafka.consumer.trusted-packages:com.core.lib.entity,com.core.lib.model}")
+    private String[] trustedPackages;
+
+    @Value("${corelib.kafka.consumer.type-mappings:}") // e.g. transaction:com.core.lib.entity.Transaction
+    private String[] typeMappings;
+
     /**
      * Creates a ConsumerFactory capable of consuming JSON/Object/Array payloads.
      * <p>
@@ -40,9 +91,10 @@ public class KafkaConsumerConfig {
      * it is safer to restrict this to your specific model packages.
      *
      * @return ConsumerFactory<String, Object> configured with StringDeserializer for keys
-     *         and JsonDeserializer for values.
+     *         and JsonDeserializer, wrapped in ErrorHandlingDeserializer, for values.
      */
     @Bean
+    @Primary
     public ConsumerFactory<String, Object> consumerFactory() {
         JsonDeserializer<Object> deserializer = new JsonDeserializer<>(Object.class);
         deserializer.addTrustedPackages("*");
@@ -52,28 +104,143 @@ public class KafkaConsumerConfig {
                         ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, serverAddress,
                         ConsumerConfig.GROUP_ID_CONFIG, groupId,
                         ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
-                        ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class
+                        ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class
                 ),
                 new StringDeserializer(),
-                deserializer
+                new ErrorHandlingDeserializer<>(deserializer)
         );
     }
 
     /**
      * Creates a ConcurrentKafkaListenerContainerFactory for consuming messages.
      * <p>
-     * This factory supports concurrent consumers, error handling via DefaultErrorHandler,
+     * This factory supports concurrent consumers, error handling via the shared kafkaErrorHandler,
      * and can be referenced in @KafkaListener annotations.
      *
      * @return ConcurrentKafkaListenerContainerFactory<String, Object> for generic payload consumption.
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
+            DefaultErrorHandler kafkaErrorHandler) {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
         factory.setConcurrency(3);
-        factory.setCommonErrorHandler(new DefaultErrorHandler());
+        factory.setCommonErrorHandler(kafkaErrorHandler);
+        applyListenerTaskExecutor(factory, "corelib-kafka-");
         return factory;
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates a ConsumerFactory for batch listeners with typed payloads.
+     * <p>
+     * The payload class is picked per topic ({@code corelib.kafka.consumer.topic-type.<topic>}),
+     * then from the {@code __TypeId__} header through {@code corelib.kafka.consumer.type-mappings},
+     * and defaults to generic maps. Header types are only accepted from
+     * {@code corelib.kafka.consumer.trusted-packages}. A record that cannot be deserialized reaches
+     * the listener with a null value instead of blocking the partition.
+     *
+     * @return ConsumerFactory<String, Object> tuned for large polls.
+     */
+    @Bean
+    public ConsumerFactory<String, Object> batchConsumerFactory(Environment environment) {
+        JsonDeserializer<Object> deserializer = new JsonDeserializer<>(Object.class);
+        DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+        typeMapper.setIdClassMapping(typeMappings());
+        deserializer.setTypeMapper(typeMapper);
+        deserializer.addTrustedPackages(trustedPackages);
+        deserializer.setTypeResolver(new TopicTypeResolver(
+                topic -> environment.getProperty(TOPIC_TYPE_PREFIX + topic)));
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, serverAddress);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxPollRecords);
+        config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batchFetchMinBytes);
+        config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) batchFetchMaxWait.toMillis());
+
+        return new DefaultKafkaConsumerFactory<>(
+                config,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(deserializer)
+        );
+    }
+
+    /**
+     * Creates a batch-mode ConcurrentKafkaListenerContainerFactory.
+     * <p>
+     * Listeners receive up to {@code corelib.kafka.batch.max-poll-records} records per call, e.g.
+     * {@code @KafkaListener(topics = "transactions", containerFactory = "batchKafkaListenerContainerFactory")}
+     * on a method taking {@code List<Transaction>} or {@code List<ConsumerRecord<String, Transaction>>}.
+     * Offsets are committed once the whole batch was processed. To go past one thread per partition:
+     * <pre>
+     * void onBatch(List&lt;ConsumerRecord&lt;String, Transaction&gt;&gt; records) {
+     *     keyOrderedProcessor.process(records, record -&gt; save(record.value()));
+     * }
+     * </pre>
+     *
+     * @return ConcurrentKafkaListenerContainerFactory<String, Object> for batch consumption.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory(
+            Environment environment, DefaultErrorHandler kafkaErrorHandler) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(batchConsumerFactory(environment));
+        factory.setBatchListener(true);
+        factory.setConcurrency(batchConcurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(kafkaErrorHandler);
+        applyListenerTaskExecutor(factory, "corelib-kafka-batch-");
+        return factory;
+    }
+
+    /**
+     * Creates the KeyOrderedProcessor used by batch listeners to process records in parallel.
+     * <p>
+     * Workers are virtual threads unless {@code corelib.kafka.parallel.virtual-threads=false}, in which
+     * case a fixed pool of {@code corelib.kafka.parallel.max-in-flight} platform threads is used.
+     *
+     * @return KeyOrderedProcessor running up to max-in-flight keys at once.
+     */
+    @Bean
+    public KeyOrderedProcessor keyOrderedProcessor() {
+        ExecutorService executor;
+        if (parallelVirtualThreads) {
+            ThreadFactory factory = Thread.ofVirtual().name("corelib-kafka-worker-", 0).factory();
+            executor = Executors.newThreadPerTaskExecutor(factory);
+        } else {
+            ThreadFactory factory = Thread.ofPlatform().name("corelib-kafka-worker-", 0).daemon(true).factory();
+            executor = Executors.newFixedThreadPool(parallelMaxInFlight, factory);
+        }
+        return new KeyOrderedProcessor(executor, parallelMaxInFlight);
+    }
+
+    /**
+     * Runs the consumer threads of the containers on virtual threads when
+     * {@code corelib.threads.virtual.enabled} (by default {@code spring.threads.virtual.enabled}) is true.
+     */
+    private void applyListenerTaskExecutor(ConcurrentKafkaListenerContainerFactory<?, ?> factory, String threadPrefix) {
+        if (!virtualThreads) return;
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadPrefix);
+        executor.setVirtualThreads(true);
+        factory.getContainerProperties().setListenerTaskExecutor(executor);
+    }
+
+    private Map<String, Class<?>> typeMappings() {
+        Map<String, Class<?>> mappings = new HashMap<>();
+        for (String mapping : typeMappings) {
+            if (mapping.isBlank()) continue;
+            String[] parts = mapping.split(":", 2);
+            if (parts.length != 2) {
+                throw new IllegalStateException("Invalid Kafka type mapping [" + mapping + "], expected token:class");
+            }
+            try {
+                mappings.put(parts[0].trim(), ClassUtils.forName(parts[1].trim(), ClassUtils.getDefaultClassLoader()));
+            } catch (ClassNotFoundException ex) {
+                throw new IllegalStateException("Unknown class in Kafka type mapping [" + mapping + "]", ex);
+            }
+        }
+        return mappings;
+    }
+}
@@ -0,0 +1,156 @@
+package com.core.lib.config;
+
+import com.core.lib.exception.BusinessException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * KafkaErrorHandlingConfig decides what happens to records a listener fails on.
+ * <p>
+ * {@link BusinessException} is never retried, {@code InternalException} and other errors are.
+ * <ul>
+ *     <li>kafkaErrorHandler: used by both listener container factories. Retries the record in place
+ *     a few times ({@code corelib.kafka.error.*}), then forwards it with its headers to
+ *     {@code <topic>.DLT} and moves on, so one poison record does not stall the partition.</li>
+ *     <li>kafkaRetryTopicConfiguration: with {@code corelib.kafka.retry.enabled=true}, record listeners
+ *     of the topics in {@code corelib.kafka.retry.topics} retry through delayed topics
+ *     ({@code <topic>.retry-0}, {@code -1}, ...) instead, so the main partitions keep flowing while
+ *     a record waits, and end in {@code <topic>.DLT}. Retry topics do not support batch listeners,
+ *     so the topics must be listed explicitly. Their recoverer forwards undeserializable records as
+ *     raw bytes too, see {@link KafkaRetryTopicConfig}.</li>
+ * </ul>
+ */
+@Configuration
+public class KafkaErrorHandlingConfig {
+
+    @Value("${corelib.kafka.error.retry-interval:1s}")
+    private Duration retryInterval;
+
+    @Value("${corelib.kafka.error.retry-attempts:2}")
+    private Long retryAttempts;
+
+    @Value("${corelib.kafka.retry.topics:}") // required with corelib.kafka.retry.enabled, record listeners only
+    private String[] retryTopics;
+
+    @Value("${corelib.kafka.retry.attempts:4}") // first delivery included: 1s, 10s, 1m
+    private Integer retryTopicAttempts;
+
+    @Value("${corelib.kafka.retry.initial-delay:1s}")
+    private Duration retryInitialDelay;
+
+    @Value("${corelib.kafka.retry.multiplier:10}")
+    private Double retryMultiplier;
+
+    @Value("${corelib.kafka.retry.max-delay:1m}")
+    private Duration retryMaxDelay;
+
+    @Value("${corelib.kafka.retry.auto-create-topics:false}")
+    private Boolean autoCreateRetryTopics;
+
+    /**
+     * Producer for records forwarded as raw bytes, with the settings of objectProducerFactory.
+     * When that one is transactional (EXACTLY_ONCE) this one is too, with its own
+     * {@code <transaction-id-prefix>dlt-} prefix.
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> deadLetterBytesProducerFactory(
+            @Qualifier("objectProducerFactory") ProducerFactory<String, Object> objectProducerFactory) {
+        DefaultKafkaProducerFactory<String, byte[]> factory = new DefaultKafkaProducerFactory<>(
+                objectProducerFactory.getConfigurationProperties(), new StringSerializer(), new ByteArraySerializer());
+        if (objectProducerFactory.transactionCapable()) {
+            factory.setTransactionIdPrefix(objectProducerFactory.getTransactionIdPrefix() + "dlt-");
+        }
+        return factory;
+    }
+
+    /**
+     * Template over deadLetterBytesProducerFactory, shared by the error handler and retry topic recoverers.
+     */
+    @Bean
+    public KafkaTemplate<String, byte[]> deadLetterBytesKafkaTemplate(
+            @Qualifier("deadLetterBytesProducerFactory") ProducerFactory<String, byte[]> deadLetterBytesProducerFactory) {
+        return new KafkaTemplate<>(deadLetterBytesProducerFactory);
+    }
+
+    /**
+     * Publishes failed records to {@code <topic>.DLT} on the same partition, keeping the original
+     * headers. Records that could not be deserialized (see the ErrorHandlingDeserializer of the
+     * consumer factories) are forwarded as the original bytes.
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer(
+            @Qualifier("objectKafkaTemplate") KafkaTemplate<String, Object> objectKafkaTemplate,
+            @Qualifier("deadLetterBytesKafkaTemplate") KafkaTemplate<String, byte[]> deadLetterBytesKafkaTemplate) {
+        return new DeadLetterPublishingRecoverer(deadLetterTemplates(objectKafkaTemplate, deadLetterBytesKafkaTemplate));
+    }
+
+    /**
+     * Raw bytes of records that failed deserialization go through the bytes template, everything
+     * else through the JSON one.
+     */
+    static Map<Class<?>, KafkaOperations<?, ?>> deadLetterTemplates(KafkaTemplate<String, Object> objectKafkaTemplate,
+                                                                    KafkaTemplate<String, byte[]> bytesKafkaTemplate) {
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        templates.put(byte[].class, bytesKafkaTemplate);
+        templates.put(Object.class, objectKafkaTemplate);
+        return templates;
+    }
+
+    /**
+     * Error handler shared by the listener container factories.
+     */
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(DeadLetterPublishingRecoverer deadLetterPublishingRecoverer) {
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(deadLetterPublishingRecoverer,
+                new FixedBackOff(retryInterval.toMillis(), retryAttempts));
+        errorHandler.addNotRetryableExceptions(BusinessException.class);
+        return errorHandler;
+    }
+
+    /**
+     * Non-blocking retry topics for the record listeners of {@code corelib.kafka.retry.topics}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "corelib.kafka.retry.enabled", havingValue = "true")
+    public RetryTopicConfiguration kafkaRetryTopicConfiguration(
+            @Qualifier("objectKafkaTemplate") KafkaTemplate<String, Object> objectKafkaTemplate) {
+        RetryTopicConfigurationBuilder builder = RetryTopicConfigurationBuilder.newInstance()
+                .listenerFactory("kafkaListenerContainerFactory")
+                .maxAttempts(retryTopicAttempts)
+                .exponentialBackoff(retryInitialDelay.toMillis(), retryMultiplier, retryMaxDelay.toMillis())
+                .notRetryOn(List.of(BusinessException.class))
+                .retryTopicSuffix(".retry")
+                .dltSuffix(".DLT")
+                .suffixTopicsWithIndexValues();
+
+        List<String> topics = Arrays.stream(retryTopics).map(String::trim).filter(topic -> !topic.isEmpty()).toList();
+        if (topics.isEmpty()) {
+            throw new IllegalStateException("corelib.kafka.retry.topics must list the topics of the record listeners "
+                    + "to retry; retry topics do not support batch listeners");
+        }
+        builder.includeTopics(topics);
+        if (!autoCreateRetryTopics) builder.doNotAutoCreateRetryTopics();
+
+        return builder.create(objectKafkaTemplate);
+    }
+}
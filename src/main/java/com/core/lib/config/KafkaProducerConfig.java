@@ -1,15 +1,18 @@
 package com.core.lib.config;
 
+import com.core.lib.kafka.KafkaProducerProfile;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -24,6 +27,9 @@ import java.util.Map;
  * <p>
  * Each KafkaTemplate uses a corresponding ProducerFactory which handles serialization
  * of the message key and value.
+ * <p>
+ * The object producer is tuned by a named profile ({@code corelib.kafka.producer.profile}, see
+ * {@link KafkaProducerProfile}); single settings can be overridden on top of it.
  */
 @Configuration
 public class KafkaProducerConfig {
@@ -31,19 +37,47 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String serverAddress;
 
+    @Value("${corelib.kafka.producer.profile:DEFAULT}")
+    private KafkaProducerProfile profile;
+
+    @Value("${corelib.kafka.producer.linger:#{null}}")
+    private Duration linger;
+
+    @Value("${corelib.kafka.producer.batch-size:#{null}}")
+    private Integer batchSize;
+
+    @Value("${corelib.kafka.producer.compression-type:}") // none | gzip | snappy | lz4 | zstd
+    private String compressionType;
+
+    @Value("${corelib.kafka.producer.transaction-id-prefix:corelib-tx-}")
+    private String transactionIdPrefix;
+
     /**
      * Creates a ProducerFactory for sending JSON/Object/Array payloads.
+     * <p>
+     * With the EXACTLY_ONCE profile the factory is transactional, using
+     * {@code corelib.kafka.producer.transaction-id-prefix}.
      *
      * @return ProducerFactory<String, Object> configured with String key serializer
      *         and JsonSerializer for the value.
      */
     @Bean
+    @Primary
     public ProducerFactory<String, Object> objectProducerFactory() {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, serverAddress);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(config);
+        config.putAll(profile.settings());
+        if (linger != null) config.put(ProducerConfig.LINGER_MS_CONFIG, (int) linger.toMillis());
+        if (batchSize != null) config.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        if (!compressionType.isEmpty()) config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(config);
+        if (profile.isTransactional()) {
+            factory.setTransactionIdPrefix(transactionIdPrefix);
+        }
+        return factory;
     }
 
     /**
@@ -52,6 +86,7 @@ public class KafkaProducerConfig {
      * @return KafkaTemplate<String, Object>
      */
     @Bean
+    @Primary
     public KafkaTemplate<String, Object> objectKafkaTemplate() {
         return new KafkaTemplate<>(objectProducerFactory());
     }
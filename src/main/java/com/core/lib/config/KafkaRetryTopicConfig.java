@@ -0,0 +1,43 @@
+package com.core.lib.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationSupport;
+
+import java.util.function.Consumer;
+
+/**
+ * KafkaRetryTopicConfig makes the retry topic chain forward records like kafkaErrorHandler does.
+ * <p>
+ * The recoverer publishing to {@code <topic>.retry-N} and {@code <topic>.DLT} would otherwise only
+ * use the template given to the RetryTopicConfiguration (JSON), so records that failed
+ * deserialization would land there as base64 strings instead of their original bytes. Active with
+ * {@code corelib.kafka.retry.enabled=true}; an application can only have one
+ * {@link RetryTopicConfigurationSupport}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "corelib.kafka.retry.enabled", havingValue = "true")
+public class KafkaRetryTopicConfig extends RetryTopicConfigurationSupport {
+
+    private final KafkaTemplate<String, Object> objectKafkaTemplate;
+    private final KafkaTemplate<String, byte[]> deadLetterBytesKafkaTemplate;
+
+    public KafkaRetryTopicConfig(
+            @Qualifier("objectKafkaTemplate") KafkaTemplate<String, Object> objectKafkaTemplate,
+            @Qualifier("deadLetterBytesKafkaTemplate") KafkaTemplate<String, byte[]> deadLetterBytesKafkaTemplate) {
+        this.objectKafkaTemplate = objectKafkaTemplate;
+        this.deadLetterBytesKafkaTemplate = deadLetterBytesKafkaTemplate;
+    }
+
+    @Override
+    protected Consumer<DeadLetterPublishingRecovererFactory> configureDeadLetterPublishingContainerFactory() {
+        return factory -> factory.setDeadLetterPublisherCreator((templateResolver, destinationResolver) ->
+                new DeadLetterPublishingRecoverer(
+                        KafkaErrorHandlingConfig.deadLetterTemplates(objectKafkaTemplate, deadLetterBytesKafkaTemplate),
+                        destinationResolver));
+    }
+}
@@ -0,0 +1,122 @@
+package com.core.lib.config;
+
+import com.core.lib.cache.ClientTrackingInvalidator;
+import com.core.lib.cache.LruNearCache;
+import com.core.lib.cache.NearCache;
+import com.core.lib.cache.NearCacheEviction;
+import com.core.lib.cache.NearCacheInvalidator;
+import com.core.lib.cache.ReconnectInvalidator;
+import com.core.lib.cache.TinyLfuNearCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * NearCacheConfig sets up the optional in-process L1 tier used by RedisCacheProvider.
+ * <p>
+ * Enabled with {@code corelib.cache.near.enabled=true}. A hash is cached locally only when
+ * it has a positive TTL, either its own ({@code corelib.cache.near.hash-ttl.<hashName>})
+ * or the default ({@code corelib.cache.near.default-ttl}, which is 0 = off unless set).
+ * <p>
+ * Writes are propagated to other nodes over a Redis pub/sub channel, and optionally through
+ * RESP3 client-side tracking so writes made outside this library are seen as well.
+ */
+@Configuration
+@ConditionalOnProperty(name = "corelib.cache.near.enabled", havingValue = "true")
+public class NearCacheConfig {
+
+    private static final String HASH_TTL_PREFIX = "corelib.cache.near.hash-ttl.";
+
+    @Value("${corelib.cache.near.max-size:10000}")
+    private Long maxSize;
+
+    @Value("${corelib.cache.near.eviction:TINY_LFU}")
+    private NearCacheEviction eviction;
+
+    @Value("${corelib.cache.near.default-ttl:0}")
+    private Duration defaultTtl;
+
+    @Value("${corelib.cache.near.invalidation.channel:corelib:cache:invalidation}")
+    private String invalidationChannel;
+
+    @Value("${corelib.cache.near.invalidation.tracking-prefixes:}")
+    private String[] trackingPrefixes;
+
+    /**
+     * Near cache with the configured eviction policy and per-hash TTLs.
+     */
+    @Bean
+    public NearCache nearCache(Environment environment) {
+        Function<String, Duration> ttlResolver = hashName ->
+                environment.getProperty(HASH_TTL_PREFIX + hashName, Duration.class, defaultTtl);
+
+        return eviction == NearCacheEviction.LRU
+                ? new LruNearCache(maxSize, ttlResolver)
+                : new TinyLfuNearCache(maxSize, ttlResolver);
+    }
+
+    /**
+     * Publishes local writes and applies invalidations coming from other nodes.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "corelib.cache.near.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+    public NearCacheInvalidator nearCacheInvalidator(NearCache nearCache,
+                                                     StringRedisTemplate stringRedisTemplate,
+                                                     ObjectMapper objectMapper) {
+        return new NearCacheInvalidator(nearCache, stringRedisTemplate, objectMapper, invalidationChannel);
+    }
+
+    /**
+     * Subscribes the invalidator on the shared Lettuce connection factory.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "corelib.cache.near.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer nearCacheInvalidationContainer(LettuceConnectionFactory redisConnectionFactory,
+                                                                        NearCacheInvalidator nearCacheInvalidator) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(nearCacheInvalidator, new ChannelTopic(nearCacheInvalidator.getChannel()));
+        return container;
+    }
+
+    /**
+     * Drops the near cache when Lettuce reconnects, as invalidations sent during the outage are lost.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "corelib.cache.near.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+    public ReconnectInvalidator nearCacheReconnectInvalidator(LettuceConnectionFactory redisConnectionFactory,
+                                                              NearCache nearCache) {
+        return new ReconnectInvalidator(redisConnectionFactory, nearCache);
+    }
+
+    /**
+     * RESP3 client-side tracking, off unless {@code corelib.cache.near.invalidation.client-tracking=true}.
+     * Tracks {@code tracking-prefixes}, or else the hashes listed under {@code hash-ttl}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "corelib.cache.near.invalidation.client-tracking", havingValue = "true")
+    public ClientTrackingInvalidator clientTrackingInvalidator(LettuceConnectionFactory redisConnectionFactory,
+                                                               NearCache nearCache, Environment environment) {
+        String[] prefixes = trackingPrefixes.length > 0
+                ? trackingPrefixes
+                : Binder.get(environment)
+                        .bind(HASH_TTL_PREFIX.substring(0, HASH_TTL_PREFIX.length() - 1),
+                                Bindable.mapOf(String.class, Duration.class))
+                        .orElse(Map.of())
+                        .keySet().toArray(String[]::new);
+        return new ClientTrackingInvalidator(redisConnectionFactory, nearCache, prefixes);
+    }
+}
@@ -0,0 +1,79 @@
+package com.core.lib.config;
+
+import com.core.lib.kafka.KafkaProducerProfile;
+import com.core.lib.outbox.OutboxPublisher;
+import com.core.lib.outbox.OutboxRelay;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * OutboxConfig sets up the transactional outbox between JPA and Kafka.
+ * <p>
+ * Enabled with {@code corelib.outbox.enabled=true}; the table is created by
+ * {@code corelib/db/outbox.sql}. Services write records with {@link OutboxPublisher} inside their
+ * JPA transaction and {@link OutboxRelay} publishes them in the background with the
+ * HIGH_THROUGHPUT producer profile.
+ */
+@Configuration
+@ConditionalOnProperty(name = "corelib.outbox.enabled", havingValue = "true")
+public class OutboxConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String serverAddress;
+
+    @Value("${corelib.outbox.batch-size:500}")
+    private Integer batchSize;
+
+    @Value("${corelib.outbox.poll-interval:500ms}")
+    private Duration pollInterval;
+
+    @Value("${corelib.outbox.send-timeout:30s}")
+    private Duration sendTimeout;
+
+    @Value("${corelib.outbox.retention:7d}") // 0 = keep sent rows
+    private Duration retention;
+
+    /**
+     * Producer for already serialized outbox payloads.
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> outboxProducerFactory() {
+        Map<String, Object> config = new HashMap<>(KafkaProducerProfile.HIGH_THROUGHPUT.settings());
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, serverAddress);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        return new DefaultKafkaProducerFactory<>(config);
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> outboxKafkaTemplate() {
+        return new KafkaTemplate<>(outboxProducerFactory());
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        return new OutboxRelay(jdbcTemplate, new TransactionTemplate(transactionManager), outboxKafkaTemplate(),
+                batchSize, pollInterval, sendTimeout, retention);
+    }
+
+    @Bean
+    public OutboxPublisher outboxPublisher(ObjectMapper objectMapper, OutboxRelay outboxRelay) {
+        return new OutboxPublisher(objectMapper, outboxRelay);
+    }
+}
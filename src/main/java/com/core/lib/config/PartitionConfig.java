@@ -0,0 +1,48 @@
+package com.core.lib.config;
+
+import com.core.lib.partition.TransactionPartitionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+/**
+ * PartitionConfig maintains the monthly partitions of the {@code transaction} table.
+ * <p>
+ * Enabled with {@code corelib.partition.transaction.enabled=true} once the table was converted by
+ * {@code corelib/db/migration/V2026.10.3__corelib_partition_transaction.sql}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "corelib.partition.transaction.enabled", havingValue = "true")
+public class PartitionConfig {
+
+    @Value("${corelib.partition.transaction.months-ahead:3}")
+    private Integer monthsAhead;
+
+    @Value("${corelib.partition.transaction.retention-months:0}") // 0 = keep all partitions
+    private Integer retentionMonths;
+
+    @Value("${corelib.partition.transaction.retention-action:DETACH}")
+    private TransactionPartitionManager.RetentionAction retentionAction;
+
+    @Value("${corelib.partition.transaction.check-interval:6h}")
+    private Duration checkInterval;
+
+    @Value("${corelib.partition.transaction.lock-timeout:5s}")
+    private Duration lockTimeout;
+
+    @Value("${corelib.partition.transaction.detach-attempts:3}")
+    private Integer detachAttempts;
+
+    @Bean
+    public TransactionPartitionManager transactionPartitionManager(JdbcTemplate jdbcTemplate,
+                                                                   PlatformTransactionManager transactionManager) {
+        return new TransactionPartitionManager(jdbcTemplate, new TransactionTemplate(transactionManager),
+                monthsAhead, retentionMonths, retentionAction, checkInterval, lockTimeout, detachAttempts);
+    }
+}
@@ -1,26 +1,57 @@
 package com.core.lib.config;
 
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConfiguration;
 import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 
+/**
+ * RedisConfig sets up the Lettuce connection and the templates built on it.
+ * <p>
+ * Each template has a single serialization responsibility so values are never encoded twice:
+ * <ul>
+ *     <li>redisTemplate: generic String/JSON template (primary) for application code.</li>
+ *     <li>stringRedisTemplate: plain strings, used for pub/sub, locks and bookkeeping keys.</li>
+ *     <li>cacheRedisTemplate: raw bytes, used by the cache providers which encode values themselves.</li>
+ *     <li>reactiveCacheRedisTemplate: non-blocking counterpart of cacheRedisTemplate.</li>
+ * </ul>
+ */
 @Configuration
 public class RedisConfig {
 
-    @Value("${spring.redis.host}")
+    @Value("${spring.redis.mode:standalone}") // standalone | sentinel | cluster
+    private String redisMode;
+
+    @Value("${spring.redis.host:localhost}")
     private String redisHostName;
 
-    @Value("${spring.redis.port}")
+    @Value("${spring.redis.port:6379}")
     private Integer redisPort;
 
     @Value("${spring.redis.password:}")
@@ -29,24 +60,144 @@ public class RedisConfig {
     @Value("${spring.redis.timeout:5000}") // default timeout 5s
     private Long redisTimeout;
 
+    @Value("${spring.redis.sentinel.master:}")
+    private String sentinelMaster;
+
+    @Value("${spring.redis.sentinel.nodes:}")
+    private Set<String> sentinelNodes;
+
+    @Value("${spring.redis.cluster.nodes:}")
+    private List<String> clusterNodes;
+
+    @Value("${spring.redis.cluster.max-redirects:3}")
+    private Integer clusterMaxRedirects;
+
+    @Value("${spring.redis.cluster.refresh-period:30s}")
+    private Duration clusterRefreshPeriod;
+
+    @Value("${spring.redis.read-from:}") // e.g. replicaPreferred, empty = primary only
+    private String readFrom;
+
+    @Value("${corelib.cache.near.enabled:false}")
+    private Boolean nearCacheEnabled;
+
+    @Value("${spring.redis.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${spring.redis.keep-alive:true}")
+    private Boolean keepAlive;
+
+    @Value("${spring.redis.auto-reconnect:true}")
+    private Boolean autoReconnect;
+
+    @Value("${spring.redis.pool.enabled:false}")
+    private Boolean poolEnabled;
+
+    @Value("${spring.redis.pool.max-active:16}")
+    private Integer poolMaxActive;
+
+    @Value("${spring.redis.pool.max-idle:8}")
+    private Integer poolMaxIdle;
+
+    @Value("${spring.redis.pool.min-idle:0}")
+    private Integer poolMinIdle;
+
+    @Value("${spring.redis.pool.max-wait:-1}")
+    private Duration poolMaxWait;
+
     /**
      * Redis connection factory (Lettuce recommended).
+     * <p>
+     * The topology follows {@code spring.redis.mode}. With {@code spring.redis.read-from} set, reads
+     * (including the cache providers') go to replicas per the Lettuce ReadFrom policy while writes
+     * stay on the primary. With {@code spring.redis.pool.enabled}, blocking commands use dedicated
+     * pooled connections instead of the single shared one.
+     * <p>
+     * Replica reads are refused together with {@code corelib.cache.near.enabled}: a node that gets
+     * an invalidation could refill its near cache from a replica that has not applied the write yet,
+     * and would then serve the stale value for the whole near cache TTL.
      */
     @Bean
     public LettuceConnectionFactory redisConnectionFactory() {
-        RedisStandaloneConfiguration redisConfig =
-                new RedisStandaloneConfiguration(redisHostName, redisPort);
-
-        if (redisPassword != null && !redisPassword.isEmpty()) {
-            redisConfig.setPassword(RedisPassword.of(redisPassword));
-        }
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder clientConfig = poolEnabled
+                ? LettucePoolingClientConfiguration.builder().poolConfig(poolConfig())
+                : LettuceClientConfiguration.builder();
 
-        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+        clientConfig
                 .commandTimeout(Duration.ofMillis(redisTimeout))
                 .shutdownTimeout(Duration.ofSeconds(2)) // graceful shutdown
+                .clientOptions(clientOptions());
+
+        if (readFrom != null && !readFrom.isEmpty()) {
+            ReadFrom policy = ReadFrom.valueOf(readFrom);
+            if (nearCacheEnabled && policy != ReadFrom.MASTER && policy != ReadFrom.UPSTREAM) {
+                throw new IllegalStateException("spring.redis.read-from=" + readFrom
+                        + " cannot be combined with corelib.cache.near.enabled=true, the near cache would be"
+                        + " refilled from replicas that may not have applied an invalidated write yet");
+            }
+            clientConfig.readFrom(policy);
+        }
+
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(redisConfiguration(), clientConfig.build());
+        factory.setShareNativeConnection(!poolEnabled);
+        return factory;
+    }
+
+    private RedisConfiguration redisConfiguration() {
+        RedisPassword password = redisPassword != null && !redisPassword.isEmpty()
+                ? RedisPassword.of(redisPassword)
+                : RedisPassword.none();
+
+        switch (redisMode.toLowerCase()) {
+            case "sentinel" -> {
+                RedisSentinelConfiguration sentinelConfig = new RedisSentinelConfiguration(sentinelMaster, sentinelNodes);
+                sentinelConfig.setPassword(password);
+                return sentinelConfig;
+            }
+            case "cluster" -> {
+                RedisClusterConfiguration clusterConfig = new RedisClusterConfiguration(clusterNodes);
+                clusterConfig.setMaxRedirects(clusterMaxRedirects);
+                clusterConfig.setPassword(password);
+                return clusterConfig;
+            }
+            default -> {
+                RedisStandaloneConfiguration standaloneConfig =
+                        new RedisStandaloneConfiguration(redisHostName, redisPort);
+                standaloneConfig.setPassword(password);
+                return standaloneConfig;
+            }
+        }
+    }
+
+    private ClientOptions clientOptions() {
+        SocketOptions socketOptions = SocketOptions.builder()
+                .connectTimeout(connectTimeout)
+                .keepAlive(keepAlive)
+                .build();
+
+        if ("cluster".equalsIgnoreCase(redisMode)) {
+            return ClusterClientOptions.builder()
+                    .socketOptions(socketOptions)
+                    .autoReconnect(autoReconnect)
+                    .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+                            .enablePeriodicRefresh(clusterRefreshPeriod)
+                            .enableAllAdaptiveRefreshTriggers()
+                            .build())
+                    .build();
+        }
+        return ClientOptions.builder()
+                .socketOptions(socketOptions)
+                .autoReconnect(autoReconnect)
                 .build();
+    }
 
-        return new LettuceConnectionFactory(redisConfig, clientConfig);
+    private GenericObjectPoolConfig<StatefulConnection<?, ?>> poolConfig() {
+        GenericObjectPoolConfig<StatefulConnection<?, ?>> poolConfig = new GenericObjectPoolConfig<>();
+        poolConfig.setMaxTotal(poolMaxActive);
+        poolConfig.setMaxIdle(poolMaxIdle);
+        poolConfig.setMinIdle(poolMinIdle);
+        poolConfig.setMaxWait(poolMaxWait);
+        return poolConfig;
     }
 
     /**
@@ -82,4 +233,50 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
-}
\ No newline at end of file
+
+    /**
+     * RedisTemplate for plain String keys and values.
+     * <p>
+     * Declared here so that a {@code RedisTemplate<String, String>} injection point always gets
+     * this template and never the JSON one.
+     */
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(LettuceConnectionFactory redisConnectionFactory) {
+        return new StringRedisTemplate(redisConnectionFactory);
+    }
+
+    /**
+     * RedisTemplate for String keys and raw byte values, used by the cache providers.
+     * Values are already encoded by CacheValueCodec, so no serializer runs on top of it.
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> cacheRedisTemplate(LettuceConnectionFactory redisConnectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(redisConnectionFactory);
+
+        StringRedisSerializer stringSerializer = new StringRedisSerializer();
+
+        template.setKeySerializer(stringSerializer);
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(stringSerializer);
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * ReactiveRedisTemplate for String keys and raw byte values, used by AsyncRedisCacheProvider.
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, byte[]> reactiveCacheRedisTemplate(LettuceConnectionFactory redisConnectionFactory) {
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(RedisSerializer.byteArray())
+                .key(StringRedisSerializer.UTF_8)
+                .value(RedisSerializer.byteArray())
+                .hashKey(StringRedisSerializer.UTF_8)
+                .hashValue(RedisSerializer.byteArray())
+                .build();
+        return new ReactiveRedisTemplate<>(redisConnectionFactory, context);
+    }
+}
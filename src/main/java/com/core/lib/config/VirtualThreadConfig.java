@@ -0,0 +1,39 @@
+package com.core.lib.config;
+
+import com.core.lib.util.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * VirtualThreadConfig adds the library's parts of running on virtual threads.
+ * <p>
+ * Tomcat, the application task executor and the task scheduler are switched by Spring Boot's own
+ * {@code spring.threads.virtual.enabled}. {@code corelib.threads.virtual.enabled} follows that
+ * property unless set; when true, the Kafka listener containers run on virtual threads too
+ * (see KafkaConsumerConfig) and pinned virtual threads are reported by
+ * {@link VirtualThreadPinningMonitor} unless {@code corelib.threads.virtual.pinning-monitor=false}.
+ */
+@Configuration
+@ConditionalOnExpression("${corelib.threads.virtual.enabled:${spring.threads.virtual.enabled:false}}")
+public class VirtualThreadConfig {
+
+    @Value("${corelib.threads.virtual.pinning-threshold:20ms}")
+    private Duration pinningThreshold;
+
+    /**
+     * JFR based pinning report.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "corelib.threads.virtual.pinning-monitor", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(ObjectProvider<MeterRegistry> registry) {
+        return new VirtualThreadPinningMonitor(registry.getIfAvailable(() -> Metrics.globalRegistry), pinningThreshold);
+    }
+}
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @Setter
 public class Activity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_seq")
+    @SequenceGenerator(name = "activity_seq", sequenceName = "activity_seq", allocationSize = 50)
     @Column(name = "activity_id")
     private Long activityId;
 
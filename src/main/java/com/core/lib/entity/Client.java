@@ -2,10 +2,14 @@ package com.core.lib.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Column;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -13,20 +17,38 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.JoinColumn;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Associations are lazy; load what a use case needs with one of the entity graphs below (see
+ * {@code ClientRepository}). Graphs holding {@code contacts} must not be used with paging, as
+ * Hibernate would paginate in memory; paged lists get the contacts through {@code @BatchSize}.
+ */
 @Entity
 @Table(name = "client")
+@NamedEntityGraph(name = Client.GRAPH_COUNTRY_CUSTODIAN, attributeNodes = {
+        @NamedAttributeNode("country"),
+        @NamedAttributeNode("custodian")
+})
+@NamedEntityGraph(name = Client.GRAPH_CONTACTS_COUNTRY, attributeNodes = {
+        @NamedAttributeNode("contacts"),
+        @NamedAttributeNode("country")
+})
 @Getter
 @Setter
 public class Client {
 
+    public static final String GRAPH_COUNTRY_CUSTODIAN = "Client.withCountryAndCustodian";
+    public static final String GRAPH_CONTACTS_COUNTRY = "Client.withContactsAndCountry";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "client_seq")
+    @SequenceGenerator(name = "client_seq", sequenceName = "client_seq", allocationSize = 50)
     @Column(name = "client_id")
     private Long clientId;
 
@@ -70,15 +92,16 @@ public class Client {
     @Column(name = "updated_by")
     private String updatedBy;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "custodian_id", nullable = false)
     @JsonBackReference
     private Custodian custodian;
 
     @OneToMany(mappedBy = "client", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private List<ClientContact> contacts;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "country_id", nullable = false)
     private Country country;
 }
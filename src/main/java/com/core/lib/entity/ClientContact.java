@@ -5,6 +5,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Column;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.FetchType;
@@ -22,7 +23,8 @@ import java.time.LocalDateTime;
 @Setter
 public class ClientContact {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "client_contact_seq")
+    @SequenceGenerator(name = "client_contact_seq", sequenceName = "client_contact_seq", allocationSize = 50)
     @Column(name = "contact_id")
     private Long contactId;
 
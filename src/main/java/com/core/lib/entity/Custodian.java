@@ -1,18 +1,23 @@
 package com.core.lib.entity;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Column;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.CascadeType;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -20,11 +25,14 @@ import java.util.List;
 
 @Entity
 @Table(name = "custodian")
+@BatchSize(size = 100)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Getter
 @Setter
 public class Custodian {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "custodian_seq")
+    @SequenceGenerator(name = "custodian_seq", sequenceName = "custodian_seq", allocationSize = 50)
     @Column(name = "custodian_id")
     private Long custodianId;
 
@@ -53,6 +61,7 @@ public class Custodian {
     private String updatedBy;
 
     @OneToMany(mappedBy = "custodian", cascade = CascadeType.ALL)
+    @Fetch(FetchMode.SUBSELECT)
     @JsonManagedReference
     private List<Client> clients;
 }
@@ -0,0 +1,53 @@
+package com.core.lib.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Kafka record waiting in the transactional outbox, see OutboxPublisher.
+ * Table definition: {@code corelib/db/outbox.sql}.
+ */
+@Entity
+@Table(name = "corelib_outbox")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "corelib_outbox_seq")
+    @SequenceGenerator(name = "corelib_outbox_seq", sequenceName = "corelib_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Insert order, filled by the column default; ids are allocated in blocks per node and are not ordered.
+     */
+    @Column(name = "seq", insertable = false, updatable = false)
+    private Long seq;
+
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    @Column(name = "event_key")
+    private String eventKey;
+
+    @Column(name = "payload_type")
+    private String payloadType;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+}
@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class TaxRecord {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tax_record_seq")
+    @SequenceGenerator(name = "tax_record_seq", sequenceName = "tax_record_seq", allocationSize = 50)
     private Long id;
 
     private String userName;
@@ -7,20 +7,32 @@ import lombok.Setter;
 import java.time.Instant;
 import java.time.LocalDate;
 
+/**
+ * Payment transaction.
+ * <p>
+ * The table may be range-partitioned by month on {@code txn_date} (migration V2026.10.3). Its
+ * primary key is then {@code (id, txn_date)} while the mapping keeps {@code id} alone, so
+ * {@code findById}, {@code merge} and {@code delete} probe every partition. Hot paths should look
+ * rows up with {@link com.core.lib.repository.TransactionRepository#findByIdAndTxnDate}, which
+ * reads a single partition.
+ */
 @Entity
-@Table(name = "transaction")
+@Table(name = "transaction", indexes = @Index(name = "idx_transaction_txn_date_id", columnList = "txn_date, id"))
 @Getter
 @Setter
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "txn_date", nullable = false)
     private Instant txnDate;
 
-    @Column(name = "transaction_id", nullable = false, unique = true)
+    // no unique constraint here: a partitioned table cannot enforce one without txn_date,
+    // uniqueness is kept by transaction_id_registry (see the V2026.10.3 migration)
+    @Column(name = "transaction_id", nullable = false)
     private String transactionId;
 
     @Column(name = "account_number")
@@ -1,6 +1,8 @@
 package com.core.lib.exception;
 
 import com.core.lib.constant.ErrorConstant;
+import com.core.lib.util.LogRateLimiter;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.log4j.Log4j2;
 import org.json.JSONObject;
@@ -16,6 +18,7 @@ import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -35,6 +38,19 @@ public class CommonExceptionAdvice extends ResponseEntityExceptionHandler {
     @Value("${internal.errorcode.prefix}")
     private String internalErrorCodePrefix;
 
+    @Value("${corelib.logging.error.per-code-limit:20}")
+    private Integer errorLogLimit;
+
+    @Value("${corelib.logging.error.window:1m}")
+    private Duration errorLogWindow;
+
+    private LogRateLimiter errorLogLimiter;
+
+    @PostConstruct
+    void initErrorLogLimiter() {
+        errorLogLimiter = new LogRateLimiter(errorLogLimit, errorLogWindow);
+    }
+
     // ------------------------- Client Errors -------------------------
 
     @ResponseStatus(HttpStatus.UNAUTHORIZED)
@@ -162,8 +178,7 @@ public class CommonExceptionAdvice extends ResponseEntityExceptionHandler {
 
         String fullErrorCode = serviceCode + "-" + prefix + "-" + errorCode;
 
-        log.error("Exception handled | Code={} | ErrorCode={} | Reason={} | Path={} | Message={}",
-                httpCode, fullErrorCode, reason, request.getRequestURI(), errorMessage, ex);
+        logHandledException(httpCode, fullErrorCode, reason, request.getRequestURI(), errorMessage, errorType, ex);
 
         return ExceptionResponse.builder()
                 .code(httpCode)
@@ -178,6 +193,31 @@ public class CommonExceptionAdvice extends ResponseEntityExceptionHandler {
 
     // ------------------------- Utils -------------------------
 
+    /**
+     * Technical errors are logged at ERROR with their stack trace, business errors at WARN without it.
+     * Each error code and exception class is limited to {@code corelib.logging.error.per-code-limit}
+     * lines per window, so one noisy failure behind a shared code such as S500 does not hide the
+     * others; the next line that gets through reports how many were suppressed.
+     */
+    private void logHandledException(Integer httpCode, String fullErrorCode, String reason, String path,
+                                     String errorMessage, String errorType, Exception ex) {
+        boolean technical = ErrorConstant.TECHNICAL_ERROR.equals(errorType);
+        if (technical ? !log.isErrorEnabled() : !log.isWarnEnabled()) {
+            return;
+        }
+        long suppressed = errorLogLimiter.tryAcquire(fullErrorCode + "|" + ex.getClass().getName());
+        if (suppressed < 0) {
+            return;
+        }
+        if (technical) {
+            log.error("Exception handled | Code={} | ErrorCode={} | Reason={} | Path={} | Message={} | Suppressed={}",
+                    httpCode, fullErrorCode, reason, path, errorMessage, suppressed, ex);
+        } else {
+            log.warn("Exception handled | Code={} | ErrorCode={} | Reason={} | Path={} | Message={} | Suppressed={}",
+                    httpCode, fullErrorCode, reason, path, errorMessage, suppressed);
+        }
+    }
+
     private String getErrorMessageFromException(HttpStatusCodeException exception) {
         try {
             JSONObject jsonObject = new JSONObject(exception.getResponseBodyAsString());
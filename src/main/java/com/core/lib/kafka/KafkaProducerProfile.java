@@ -0,0 +1,56 @@
+package com.core.lib.kafka;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Map;
+
+/**
+ * Named sets of producer settings, selected with {@code corelib.kafka.producer.profile}.
+ * <ul>
+ *     <li>DEFAULT: Kafka client defaults.</li>
+ *     <li>LOW_LATENCY: every record is sent right away, leader acknowledgement only.</li>
+ *     <li>HIGH_THROUGHPUT: records are held up to {@code linger.ms} to fill large compressed
+ *     batches; idempotent, so retries keep order and do not duplicate.</li>
+ *     <li>EXACTLY_ONCE: idempotent and transactional; sends must run inside a Kafka transaction.</li>
+ * </ul>
+ */
+public enum KafkaProducerProfile {
+
+    DEFAULT(Map.of()),
+
+    LOW_LATENCY(Map.of(
+            ProducerConfig.LINGER_MS_CONFIG, 0,
+            ProducerConfig.ACKS_CONFIG, "1",
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "none")),
+
+    HIGH_THROUGHPUT(Map.of(
+            ProducerConfig.LINGER_MS_CONFIG, 20,
+            ProducerConfig.BATCH_SIZE_CONFIG, 131072,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+            ProducerConfig.BUFFER_MEMORY_CONFIG, 67108864L,
+            ProducerConfig.ACKS_CONFIG, "all",
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+            ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION_CONFIG, 5)),
+
+    EXACTLY_ONCE(Map.of(
+            ProducerConfig.LINGER_MS_CONFIG, 5,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+            ProducerConfig.ACKS_CONFIG, "all",
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+            ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION_CONFIG, 5));
+
+    private final Map<String, Object> settings;
+
+    KafkaProducerProfile(Map<String, Object> settings) {
+        this.settings = settings;
+    }
+
+    public Map<String, Object> settings() {
+        return settings;
+    }
+
+    public boolean isTransactional() {
+        return this == EXACTLY_ONCE;
+    }
+}
@@ -0,0 +1,126 @@
+package com.core.lib.kafka;
+
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Processes the records of a batch listener in parallel while keeping the order per message key.
+ * <p>
+ * Records are split into lanes by topic, partition and key. Each lane runs on its own worker,
+ * in offset order; records without key have no ordering constraint and get a lane each. At most
+ * {@code maxInFlight} lanes run at the same time. {@link #process} returns once every record is
+ * done, so the container only commits the batch after all lower offsets were processed.
+ * <p>
+ * When a record fails, its lane stops and no record with a higher position in the batch is
+ * started. The lowest failed record is reported as a {@link BatchListenerFailedException}: the
+ * error handler commits the records before it and redelivers it and everything after it. Records
+ * after it that had already completed in other lanes are delivered again, so handlers must be
+ * idempotent. The whole batch must complete within {@code max.poll.interval.ms}.
+ */
+@Log4j2
+public class KeyOrderedProcessor implements DisposableBean {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    public KeyOrderedProcessor(ExecutorService executor, int maxInFlight) {
+        this.executor = executor;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Run {@code handler} on every record of the batch, in parallel across keys.
+     *
+     * @throws BatchListenerFailedException with the position of the lowest failed record
+     */
+    public <K, V> void process(List<ConsumerRecord<K, V>> records, Consumer<ConsumerRecord<K, V>> handler) {
+        if (records.isEmpty()) return;
+
+        Map<Object, List<Integer>> lanes = new LinkedHashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<K, V> record = records.get(i);
+            Object lane = record.key() != null ? new Lane(record.topic(), record.partition(), record.key()) : i;
+            lanes.computeIfAbsent(lane, ignored -> new ArrayList<>()).add(i);
+        }
+
+        AtomicInteger lowestFailed = new AtomicInteger(Integer.MAX_VALUE);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<Void>> running = new ArrayList<>(lanes.size());
+        try {
+            for (List<Integer> lane : lanes.values()) {
+                if (lane.get(0) > lowestFailed.get()) continue;
+                permits.acquire();
+                running.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        runLane(records, lane, handler, lowestFailed, failure);
+                    } finally {
+                        permits.release();
+                    }
+                }, executor));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while dispatching Kafka records", ex);
+        } finally {
+            try {
+                CompletableFuture.allOf(running.toArray(CompletableFuture[]::new)).join();
+            } catch (CompletionException ex) {
+                log.error("Kafka worker failed unexpectedly: {}", ex.getMessage(), ex);
+            }
+        }
+
+        int failedIndex = lowestFailed.get();
+        if (failedIndex != Integer.MAX_VALUE) {
+            ConsumerRecord<K, V> failed = records.get(failedIndex);
+            throw new BatchListenerFailedException("Failed processing record " + failed.topic() + "-"
+                    + failed.partition() + "@" + failed.offset(), failure.get(), failedIndex);
+        }
+    }
+
+    private <K, V> void runLane(List<ConsumerRecord<K, V>> records, List<Integer> lane,
+                                Consumer<ConsumerRecord<K, V>> handler,
+                                AtomicInteger lowestFailed, AtomicReference<Throwable> failure) {
+        for (int index : lane) {
+            if (index > lowestFailed.get()) return;
+            try {
+                handler.accept(records.get(index));
+            } catch (RuntimeException ex) {
+                synchronized (lowestFailed) {
+                    if (index < lowestFailed.get()) {
+                        lowestFailed.set(index);
+                        failure.set(ex);
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Lane(String topic, int partition, Object key) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.core.lib.kafka;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.support.serializer.JsonTypeResolver;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Picks the payload class of a record from its topic, e.g. {@code transaction-events} to
+ * {@code com.core.lib.entity.Transaction}.
+ * <p>
+ * Topics without a configured class resolve to {@code null}, so the deserializer falls back to
+ * the {@code __TypeId__} header mappings and then to its default type.
+ */
+public class TopicTypeResolver implements JsonTypeResolver {
+
+    private final Function<String, String> classNameResolver;
+    private final Map<String, Optional<JavaType>> typesByTopic = new ConcurrentHashMap<>();
+
+    /**
+     * @param classNameResolver fully qualified payload class name per topic, null when not mapped
+     */
+    public TopicTypeResolver(Function<String, String> classNameResolver) {
+        this.classNameResolver = classNameResolver;
+    }
+
+    @Override
+    public JavaType resolveType(String topic, byte[] data, Headers headers) {
+        return typesByTopic.computeIfAbsent(topic, this::lookup).orElse(null);
+    }
+
+    private Optional<JavaType> lookup(String topic) {
+        String className = classNameResolver.apply(topic);
+        if (className == null || className.isBlank()) return Optional.empty();
+        try {
+            Class<?> type = ClassUtils.forName(className.trim(), ClassUtils.getDefaultClassLoader());
+            return Optional.of(TypeFactory.defaultInstance().constructType(type));
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException("Unknown payload class [" + className + "] for topic [" + topic + "]", ex);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.core.lib.outbox;
+
+import com.core.lib.entity.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Writes Kafka records to the outbox table in the caller's JPA transaction.
+ * <p>
+ * Use it instead of sending with a KafkaTemplate next to a database write: the record is stored
+ * atomically with the entity and {@link OutboxRelay} publishes it after commit. A rolled back
+ * transaction publishes nothing. Calling it outside a transaction is an error.
+ */
+public class OutboxPublisher {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+    private final OutboxRelay relay;
+
+    public OutboxPublisher(ObjectMapper objectMapper, OutboxRelay relay) {
+        this.objectMapper = objectMapper;
+        this.relay = relay;
+    }
+
+    /**
+     * Store one record for {@code topic}, serialized as JSON.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String topic, String key, Object payload) {
+        entityManager.persist(toEvent(topic, key, payload));
+        wakeRelayAfterCommit();
+    }
+
+    /**
+     * Store one record per value, keyed by {@code keyMapper}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void publishAll(String topic, Collection<T> payloads, Function<T, String> keyMapper) {
+        for (T payload : payloads) {
+            entityManager.persist(toEvent(topic, keyMapper.apply(payload), payload));
+        }
+        wakeRelayAfterCommit();
+    }
+
+    private OutboxEvent toEvent(String topic, String key, Object payload) {
+        try {
+            return OutboxEvent.builder()
+                    .topic(topic)
+                    .eventKey(key)
+                    .payloadType(payload.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .createdAt(Instant.now())
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload for topic [" + topic + "]", ex);
+        }
+    }
+
+    /**
+     * Let the relay on this node pick the records up right after commit instead of at its next poll.
+     */
+    private void wakeRelayAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                relay.wakeUp();
+            }
+        });
+    }
+}
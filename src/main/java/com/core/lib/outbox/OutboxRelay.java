@@ -0,0 +1,195 @@
+package com.core.lib.outbox;
+
+import com.core.lib.util.LogRateLimiter;
+import lombok.extern.log4j.Log4j2;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes outbox rows to Kafka in batches and marks them as sent.
+ * <p>
+ * Each round runs in one database transaction: it takes a PostgreSQL advisory lock so a single
+ * node relays at a time, reads up to {@code batch-size} unsent rows in {@code seq} order, sends
+ * them all, waits for the acknowledgements and marks them sent with one UPDATE. If a send fails
+ * the transaction rolls back and the rows are sent again in the next round, so delivery is
+ * at-least-once; each record carries its row id in the {@value #OUTBOX_ID_HEADER} header for
+ * consumers that deduplicate.
+ * <p>
+ * {@code seq} is taken at insert time, not at commit, so per-key order is kept for records whose
+ * transactions do not overlap, e.g. writers that lock the aggregate row before publishing. Two
+ * open transactions publishing for the same key may be relayed in either order. The row id is no
+ * use for ordering: it comes from a pooled sequence where each node holds its own block of 50.
+ * <p>
+ * Records carry the JSON payload and the same {@code __TypeId__} header as the object
+ * KafkaTemplate, so existing consumers read them unchanged. Rounds follow each other without
+ * pause while there is a backlog, otherwise the relay waits {@code poll-interval} or until a
+ * local commit wakes it up. Sent rows older than {@code retention} are deleted.
+ */
+@Log4j2
+public class OutboxRelay implements InitializingBean, DisposableBean {
+
+    public static final String OUTBOX_ID_HEADER = "corelib_outbox_id";
+
+    private static final String LOCK = "SELECT pg_try_advisory_xact_lock(hashtext('corelib_outbox'))";
+    private static final String SELECT_UNSENT = "SELECT id, topic, event_key, payload_type, payload "
+            + "FROM corelib_outbox WHERE sent_at IS NULL ORDER BY seq LIMIT ?";
+    private static final String MARK_SENT = "UPDATE corelib_outbox SET sent_at = ? WHERE id = ANY (?)";
+    private static final String PRUNE = "DELETE FROM corelib_outbox WHERE sent_at < ?";
+    private static final Duration PRUNE_INTERVAL = Duration.ofHours(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration sendTimeout;
+    private final Duration retention;
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final LogRateLimiter errorLogLimiter = new LogRateLimiter(1, Duration.ofMinutes(1));
+    private final Thread worker;
+
+    private volatile boolean running = true;
+    private Instant lastPrune = Instant.EPOCH;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                       KafkaTemplate<String, byte[]> kafkaTemplate, int batchSize,
+                       Duration pollInterval, Duration sendTimeout, Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.sendTimeout = sendTimeout;
+        this.retention = retention;
+        this.worker = new Thread(this::relayLoop, "corelib-outbox-relay");
+        this.worker.setDaemon(true);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        worker.start();
+    }
+
+    /**
+     * Start the next round now instead of after the poll interval.
+     */
+    public void wakeUp() {
+        if (wakeUps.availablePermits() == 0) wakeUps.release();
+    }
+
+    /**
+     * Relay one batch, returning how many rows were sent (0 when another node holds the lock).
+     */
+    int relayBatch() {
+        Integer sent = transactionTemplate.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(LOCK, Boolean.class))) return 0;
+
+            List<OutboxRow> rows = jdbcTemplate.query(SELECT_UNSENT, (rs, rowNum) -> new OutboxRow(
+                    rs.getLong("id"), rs.getString("topic"), rs.getString("event_key"),
+                    rs.getString("payload_type"), rs.getString("payload")), batchSize);
+            if (rows.isEmpty()) return 0;
+
+            List<CompletableFuture<?>> sends = new ArrayList<>(rows.size());
+            for (OutboxRow row : rows) {
+                sends.add(kafkaTemplate.send(toRecord(row)));
+            }
+            awaitAll(sends);
+
+            Long[] ids = rows.stream().map(OutboxRow::id).toArray(Long[]::new);
+            jdbcTemplate.update(MARK_SENT, ps -> {
+                ps.setTimestamp(1, Timestamp.from(Instant.now()));
+                ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids));
+            });
+            return rows.size();
+        });
+        return sent != null ? sent : 0;
+    }
+
+    private void relayLoop() {
+        while (running) {
+            try {
+                int sent = relayBatch();
+                if (sent > 0 && log.isDebugEnabled()) {
+                    log.debug("Relayed [{}] outbox records", sent);
+                }
+                pruneIfDue();
+                if (sent < batchSize) awaitNextRound();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                long suppressed = errorLogLimiter.tryAcquire("relay");
+                if (suppressed >= 0) {
+                    log.error("Outbox relay round failed, retrying (similar errors suppressed: [{}]): {}",
+                            suppressed, ex.getMessage(), ex);
+                }
+                try {
+                    awaitNextRound();
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void awaitNextRound() throws InterruptedException {
+        wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        wakeUps.drainPermits();
+    }
+
+    private void awaitAll(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending outbox records", ex);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Sending outbox records failed", ex);
+        }
+    }
+
+    private void pruneIfDue() {
+        if (retention.isZero() || Instant.now().isBefore(lastPrune.plus(PRUNE_INTERVAL))) return;
+        lastPrune = Instant.now();
+        int pruned = jdbcTemplate.update(PRUNE, Timestamp.from(lastPrune.minus(retention)));
+        if (pruned > 0) log.info("Pruned [{}] sent outbox records", pruned);
+    }
+
+    private static ProducerRecord<String, byte[]> toRecord(OutboxRow row) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(row.topic(), row.key(),
+                row.payload().getBytes(StandardCharsets.UTF_8));
+        if (row.payloadType() != null) {
+            record.headers().add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME,
+                    row.payloadType().getBytes(StandardCharsets.UTF_8));
+        }
+        record.headers().add(OUTBOX_ID_HEADER, Long.toString(row.id()).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(sendTimeout.toMillis());
+    }
+
+    private record OutboxRow(long id, String topic, String key, String payloadType, String payload) {
+    }
+}
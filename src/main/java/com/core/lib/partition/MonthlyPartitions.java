@@ -0,0 +1,50 @@
+package com.core.lib.partition;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Bounds and names of the monthly {@code transaction} partitions.
+ * <p>
+ * A partition covers {@code [start, end)} of its month in UTC. Queries that filter on the raw
+ * {@code txn_date} column with such half-open ranges (no functions applied to the column) let
+ * PostgreSQL prune every other partition.
+ */
+public final class MonthlyPartitions {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private MonthlyPartitions() {
+    }
+
+    public static YearMonth monthOf(Instant instant) {
+        return YearMonth.from(instant.atOffset(ZoneOffset.UTC));
+    }
+
+    public static Instant start(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    public static Instant end(YearMonth month) {
+        return start(month.plusMonths(1));
+    }
+
+    public static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    /**
+     * Month of a partition named by {@link #partitionName}, or null for other tables.
+     */
+    public static YearMonth parse(String table, String partitionName) {
+        String prefix = table + "_p";
+        if (!partitionName.startsWith(prefix) || partitionName.length() != prefix.length() + 6) return null;
+        try {
+            return YearMonth.parse(partitionName.substring(prefix.length()), SUFFIX);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+}
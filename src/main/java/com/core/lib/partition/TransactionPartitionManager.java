@@ -0,0 +1,181 @@
+package com.core.lib.partition;
+
+import com.core.lib.util.LogRateLimiter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the monthly partitions of the {@code transaction} table, see
+ * {@code corelib/db/migration/V2026.10.3__corelib_partition_transaction.sql}.
+ * <p>
+ * Every {@code check-interval} it creates the partitions of the current month and the next
+ * {@code months-ahead} months, so inserts never hit a missing partition. With
+ * {@code retention-months} above 0, partitions that ended more than that many months ago are
+ * detached (kept as standalone tables for archiving) or dropped, and their ids are removed from
+ * {@code transaction_id_registry}. Removing a whole partition replaces a bulk DELETE and leaves
+ * nothing for vacuum.
+ * <p>
+ * There is no DEFAULT partition: a row whose {@code txn_date} falls outside every partition (older
+ * than the oldest one, or beyond {@code months-ahead}) is rejected with "no partition of relation
+ * found for row", for INSERT and COPY alike. Call {@link #ensurePartitions} before loading such data.
+ * <p>
+ * Partition creation and each retired partition run in their own transaction under a PostgreSQL
+ * advisory lock, so only one node works at a time. Detaching needs an exclusive lock on
+ * {@code transaction}; it waits at most {@code lock-timeout} for it, so long-running queries do not
+ * get every other statement on the table queued behind the DETACH, and is retried up to
+ * {@code detach-attempts} times, then again in the next round.
+ */
+@Log4j2
+public class TransactionPartitionManager implements InitializingBean, DisposableBean {
+
+    public enum RetentionAction { DETACH, DROP }
+
+    private static final String TABLE = "transaction";
+    private static final String LOCK = "SELECT pg_try_advisory_xact_lock(hashtext('corelib_transaction_partitions'))";
+    private static final String CREATE_PARTITION = "SELECT corelib_create_transaction_partition(?)";
+    private static final String LIST_PARTITIONS = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'transaction'::regclass";
+    private static final String UNREGISTER = "DELETE FROM transaction_id_registry WHERE txn_date >= ? AND txn_date < ?";
+    private static final String LOCK_TIMEOUT = "SELECT set_config('lock_timeout', ?, true)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final RetentionAction retentionAction;
+    private final Duration checkInterval;
+    private final Duration lockTimeout;
+    private final int detachAttempts;
+    private final LogRateLimiter errorLogLimiter = new LogRateLimiter(1, Duration.ofHours(1));
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "corelib-partition-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TransactionPartitionManager(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                       int monthsAhead, int retentionMonths, RetentionAction retentionAction,
+                                       Duration checkInterval, Duration lockTimeout, int detachAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.retentionAction = retentionAction;
+        this.checkInterval = checkInterval;
+        this.lockTimeout = lockTimeout;
+        this.detachAttempts = detachAttempts;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        scheduler.scheduleWithFixedDelay(this::safeMaintain, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Create the upcoming partitions and apply retention now; false when another node holds the lock.
+     */
+    public boolean maintain() {
+        YearMonth current = MonthlyPartitions.monthOf(Instant.now());
+        if (!ensurePartitions(current, current.plusMonths(monthsAhead))) return false;
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = current.minusMonths(retentionMonths);
+            List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS, String.class);
+            for (String partition : partitions) {
+                YearMonth month = MonthlyPartitions.parse(TABLE, partition);
+                if (month != null && month.isBefore(oldestKept)) {
+                    retire(partition, month);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Create the partitions of every month from {@code from} to {@code to}, both included, e.g.
+     * before loading historical data; false when another node holds the lock.
+     */
+    public boolean ensurePartitions(YearMonth from, YearMonth to) {
+        Boolean done = transactionTemplate.execute(status -> {
+            if (!lock()) return false;
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                jdbcTemplate.queryForObject(CREATE_PARTITION, String.class, month.atDay(1));
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(done);
+    }
+
+    private void retire(String partition, YearMonth month) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Boolean done = transactionTemplate.execute(status -> {
+                    if (!lock()) return false;
+                    jdbcTemplate.update(UNREGISTER, Timestamp.from(MonthlyPartitions.start(month)),
+                            Timestamp.from(MonthlyPartitions.end(month)));
+                    jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+                    if (retentionAction == RetentionAction.DROP) {
+                        jdbcTemplate.execute("DROP TABLE " + partition);
+                    }
+                    return true;
+                });
+                if (Boolean.TRUE.equals(done)) {
+                    log.info("Retention: {} partition {} of {}",
+                            retentionAction == RetentionAction.DROP ? "dropped" : "detached", partition, month);
+                }
+                return;
+            } catch (CannotAcquireLockException ex) {
+                if (attempt >= detachAttempts) {
+                    log.warn("Retention: {} still busy after [{}] attempts, retrying in {}", partition, attempt, checkInterval);
+                    return;
+                }
+                log.info("Retention: {} busy, lock not granted within {} (attempt [{}] of [{}])",
+                        partition, lockTimeout, attempt, detachAttempts);
+                try {
+                    Thread.sleep(lockTimeout.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Take the maintenance advisory lock and bound lock waits for the rest of the transaction.
+     */
+    private boolean lock() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(LOCK, Boolean.class))) return false;
+        jdbcTemplate.queryForObject(LOCK_TIMEOUT, String.class, lockTimeout.toMillis() + "ms");
+        return true;
+    }
+
+    private void safeMaintain() {
+        try {
+            maintain();
+        } catch (Exception ex) {
+            long suppressed = errorLogLimiter.tryAcquire("maintain");
+            if (suppressed >= 0) {
+                log.error("Transaction partition maintenance failed, retrying in {} (similar errors suppressed: [{}]): {}",
+                        checkInterval, suppressed, ex.getMessage(), ex);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,90 @@
+package com.core.lib.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Base implementation of {@link KeysetRepository} for one entity.
+ * <p>
+ * Subclasses name the ordering and id attributes and are picked up by Spring Data as the
+ * {@code Impl} of an entity specific fragment, see {@link TransactionKeysetRepositoryImpl}.
+ * The seek condition is a row value comparison, which PostgreSQL turns into a single index
+ * range condition.
+ */
+public abstract class AbstractKeysetRepository<T, P extends Comparable<? super P>> implements KeysetRepository<T, P> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${corelib.jpa.keyset.max-page-size:1000}")
+    private Integer maxPageSize;
+
+    @Value("${corelib.jpa.stream-fetch-size:1000}")
+    private Integer fetchSize;
+
+    private final Class<T> entityType;
+    private final String positionAttribute;
+    private final String idAttribute;
+
+    protected AbstractKeysetRepository(Class<T> entityType, String positionAttribute, String idAttribute) {
+        this.entityType = entityType;
+        this.positionAttribute = positionAttribute;
+        this.idAttribute = idAttribute;
+    }
+
+    /**
+     * Keyset of a row, used as the start of the next page.
+     */
+    protected abstract Keyset<P> keysetOf(T entity);
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<T, P> findPage(P from, P to, Keyset<P> after, int size) {
+        int limit = Math.min(Math.max(size, 1), maxPageSize);
+        TypedQuery<T> query = entityManager.createQuery(select(after != null), entityType)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(limit + 1);
+        if (after != null) {
+            query.setParameter("afterPosition", after.position())
+                    .setParameter("afterId", after.id());
+        }
+        List<T> rows = query.getResultList();
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, limit);
+        return new KeysetPage<>(content, keysetOf(content.get(limit - 1)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<T> stream(P from, P to) {
+        return entityManager.createQuery(select(false), entityType)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+
+    private String select(boolean seek) {
+        String entity = entityManager.getMetamodel().entity(entityType).getName();
+        String position = "e." + positionAttribute;
+        String id = "e." + idAttribute;
+        return "select e from " + entity + " e"
+                + " where " + position + " >= :from and " + position + " < :to"
+                + (seek ? " and (" + position + ", " + id + ") > (:afterPosition, :afterId)" : "")
+                + " order by " + position + ", " + id;
+    }
+}
@@ -0,0 +1,34 @@
+package com.core.lib.repository;
+
+import com.core.lib.entity.Client;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository of {@link Client}.
+ * <p>
+ * Each finder names the entity graph it loads, so listing clients takes a fixed number of
+ * queries: one for the clients with country and custodian joined, plus one per
+ * {@code @BatchSize} batch of contacts when they are accessed.
+ */
+public interface ClientRepository extends JpaRepository<Client, Long> {
+
+    @Override
+    @EntityGraph(Client.GRAPH_COUNTRY_CUSTODIAN)
+    Page<Client> findAll(Pageable pageable);
+
+    @EntityGraph(Client.GRAPH_CONTACTS_COUNTRY)
+    Optional<Client> findWithContactsByClientId(Long clientId);
+
+    @EntityGraph(Client.GRAPH_CONTACTS_COUNTRY)
+    List<Client> findWithContactsByClientIdIn(Collection<Long> clientIds);
+
+    @EntityGraph(attributePaths = "country")
+    List<Client> findByCustodianCustodianId(Long custodianId);
+}
@@ -0,0 +1,13 @@
+package com.core.lib.repository;
+
+import com.core.lib.entity.Custodian;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface CustodianRepository extends JpaRepository<Custodian, Long> {
+
+    @EntityGraph(attributePaths = {"clients", "clients.country"})
+    Optional<Custodian> findWithClientsByCustodianId(Long custodianId);
+}
@@ -0,0 +1,11 @@
+package com.core.lib.repository;
+
+/**
+ * Position of a row in a keyset ordered by {@code (position, id)}; the page after it starts with
+ * the first row greater than this pair.
+ *
+ * @param position value of the ordering column, e.g. {@code txn_date}
+ * @param id       primary key, breaking ties between equal positions
+ */
+public record Keyset<P>(P position, Long id) {
+}
@@ -0,0 +1,16 @@
+package com.core.lib.repository;
+
+import java.util.List;
+
+/**
+ * One page of a keyset query.
+ *
+ * @param content rows of the page, in keyset order
+ * @param next    keyset to pass for the following page, null on the last page
+ */
+public record KeysetPage<T, P>(List<T> content, Keyset<P> next) {
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.core.lib.repository;
+
+import java.util.stream.Stream;
+
+/**
+ * Repository fragment for seek pagination over {@code (position, id)}, e.g. {@code (txn_date, id)}.
+ * <p>
+ * Unlike OFFSET paging, every page is one index range scan starting right after the previous
+ * page, so page 10 000 costs the same as page 1. The table needs an index on both columns in
+ * that order. Pages and streams are half-open ranges: {@code from <= position < to}.
+ */
+public interface KeysetRepository<T, P extends Comparable<? super P>> {
+
+    /**
+     * Read the page of at most {@code size} rows following {@code after}, or the first page when
+     * {@code after} is null.
+     */
+    KeysetPage<T, P> findPage(P from, P to, Keyset<P> after, int size);
+
+    /**
+     * Stream every row of the range in keyset order through a server-side cursor.
+     * <p>
+     * Must be called inside a transaction that stays open while the stream is consumed, and the
+     * stream must be closed. Rows are detached as they are read, so the persistence context does
+     * not grow; lazy associations are not available on them.
+     */
+    Stream<T> stream(P from, P to);
+}
@@ -0,0 +1,11 @@
+package com.core.lib.repository;
+
+import com.core.lib.entity.Transaction;
+
+import java.time.Instant;
+
+/**
+ * Keyset access to {@link Transaction} ordered by {@code (txn_date, id)}.
+ */
+public interface TransactionKeysetRepository extends KeysetRepository<Transaction, Instant> {
+}
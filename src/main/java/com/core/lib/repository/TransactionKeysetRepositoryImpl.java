@@ -0,0 +1,18 @@
+package com.core.lib.repository;
+
+import com.core.lib.entity.Transaction;
+
+import java.time.Instant;
+
+public class TransactionKeysetRepositoryImpl extends AbstractKeysetRepository<Transaction, Instant>
+        implements TransactionKeysetRepository {
+
+    public TransactionKeysetRepositoryImpl() {
+        super(Transaction.class, "txnDate", "id");
+    }
+
+    @Override
+    protected Keyset<Instant> keysetOf(Transaction transaction) {
+        return new Keyset<>(transaction.getTxnDate(), transaction.getId());
+    }
+}
@@ -0,0 +1,59 @@
+package com.core.lib.repository;
+
+import com.core.lib.entity.Transaction;
+import com.core.lib.partition.MonthlyPartitions;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Optional;
+
+/**
+ * Repository of {@link Transaction}.
+ * <p>
+ * The range queries filter on the raw {@code txn_date} column with half-open bounds, so on the
+ * partitioned table PostgreSQL only reads the partitions overlapping the range.
+ */
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionKeysetRepository {
+
+    Optional<Transaction> findByTransactionId(String transactionId);
+
+    /**
+     * Look a transaction up by id within its partition. Prefer it over {@code findById} on the
+     * partitioned table, which has to probe every partition.
+     */
+    Optional<Transaction> findByIdAndTxnDate(Long id, Instant txnDate);
+
+    /**
+     * Delete a transaction by id within its partition, without loading it first.
+     */
+    @Modifying
+    @Query("delete from Transaction t where t.id = :id and t.txnDate = :txnDate")
+    int deleteByIdAndTxnDate(@Param("id") Long id, @Param("txnDate") Instant txnDate);
+
+    /**
+     * Look a transaction up through {@code transaction_id_registry}, which gives its
+     * {@code txn_date} and therefore its partition; only for the partitioned table.
+     */
+    @Query(value = "SELECT t.* FROM transaction_id_registry r "
+            + "JOIN transaction t ON t.txn_date = r.txn_date AND t.transaction_id = r.transaction_id "
+            + "WHERE r.transaction_id = :transactionId", nativeQuery = true)
+    Optional<Transaction> findPartitionedByTransactionId(@Param("transactionId") String transactionId);
+
+    @Query("select count(t) from Transaction t where t.txnDate >= :from and t.txnDate < :to")
+    long countInRange(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("select coalesce(sum(t.amount), 0) from Transaction t where t.txnDate >= :from and t.txnDate < :to")
+    double sumAmountInRange(@Param("from") Instant from, @Param("to") Instant to);
+
+    default long countInMonth(YearMonth month) {
+        return countInRange(MonthlyPartitions.start(month), MonthlyPartitions.end(month));
+    }
+
+    default double sumAmountInMonth(YearMonth month) {
+        return sumAmountInRange(MonthlyPartitions.start(month), MonthlyPartitions.end(month));
+    }
+}
@@ -0,0 +1,80 @@
+package com.core.lib.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Sends JSON payloads through the object KafkaTemplate.
+ * <p>
+ * {@link #sendAll} hands every record to the producer without waiting, so the producer can
+ * batch them ({@code linger.ms}, {@code batch.size}), and returns one future for the whole set.
+ * With a transactional producer (EXACTLY_ONCE profile) the records are sent in one transaction.
+ */
+@Service
+@Log4j2
+public class KafkaProducerService {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public KafkaProducerService(@Qualifier("objectKafkaTemplate") KafkaTemplate<String, Object> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    /**
+     * Send a single record.
+     */
+    public CompletableFuture<SendResult<String, Object>> send(String topic, String key, Object value) {
+        if (kafkaTemplate.isTransactional() && !kafkaTemplate.inTransaction()) {
+            return kafkaTemplate.executeInTransaction(ops -> ops.send(topic, key, value));
+        }
+        return kafkaTemplate.send(topic, key, value);
+    }
+
+    /**
+     * Send records without key.
+     */
+    public <T> CompletableFuture<List<SendResult<String, Object>>> sendAll(String topic, Collection<T> values) {
+        return sendAll(topic, values, value -> null);
+    }
+
+    /**
+     * Send every value, keyed by {@code keyMapper}, and complete once all are acknowledged.
+     * The returned future keeps the input order and fails if any send fails.
+     */
+    public <T> CompletableFuture<List<SendResult<String, Object>>> sendAll(String topic, Collection<T> values,
+                                                                          Function<T, String> keyMapper) {
+        if (values.isEmpty()) return CompletableFuture.completedFuture(List.of());
+        List<CompletableFuture<SendResult<String, Object>>> sends =
+                kafkaTemplate.isTransactional() && !kafkaTemplate.inTransaction()
+                        ? kafkaTemplate.executeInTransaction(ops -> sendEach(ops, topic, values, keyMapper))
+                        : sendEach(kafkaTemplate, topic, values, keyMapper);
+
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> sends.stream().map(CompletableFuture::join).toList())
+                .whenComplete((results, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed sending [{}] records to topic [{}]: {}", values.size(), topic, ex.getMessage());
+                    }
+                });
+    }
+
+    private <T> List<CompletableFuture<SendResult<String, Object>>> sendEach(
+            KafkaOperations<String, Object> operations, String topic,
+            Collection<T> values, Function<T, String> keyMapper) {
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(values.size());
+        for (T value : values) {
+            sends.add(operations.send(topic, keyMapper.apply(value), value));
+        }
+        return sends;
+    }
+}
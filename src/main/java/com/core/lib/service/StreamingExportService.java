@@ -0,0 +1,80 @@
+package com.core.lib.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes large query results to an HTTP response as they are read.
+ * <p>
+ * The body has the same shape as {@code SuccessResponse}, but {@code data} is written element by
+ * element from a stream instead of being collected into a list first, and the output is flushed
+ * every {@code corelib.jpa.export-flush-rows} rows, so the response goes out chunked and memory
+ * stays constant. The query runs in a read-only transaction on the async request thread, e.g.
+ * {@code () -> transactionRepository.stream(from, to)}.
+ * <p>
+ * Once the first chunk is sent the status can no longer change: a failure midway is logged and
+ * leaves a truncated, unparseable body so clients cannot mistake it for a complete one.
+ */
+@Service
+@Log4j2
+public class StreamingExportService {
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${corelib.jpa.export-flush-rows:500}")
+    private Integer flushRows;
+
+    public StreamingExportService(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public <T> StreamingResponseBody successResponse(String code, String message, Supplier<Stream<T>> query) {
+        return out -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<T> rows = query.get();
+                         JsonGenerator json = objectMapper.getFactory().createGenerator(out)
+                                 .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                                 .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+                        json.writeStartObject();
+                        json.writePOJOField("timestamp", LocalDateTime.now());
+                        json.writeStringField("status", "SUCCESS");
+                        json.writeStringField("code", code);
+                        json.writeStringField("message", message);
+                        json.writeArrayFieldStart("data");
+                        long count = 0;
+                        for (Iterator<T> it = rows.iterator(); it.hasNext(); ) {
+                            json.writePOJO(it.next());
+                            if (++count % flushRows == 0) {
+                                json.flush();
+                            }
+                        }
+                        json.writeEndArray();
+                        json.writeEndObject();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (RuntimeException ex) {
+                log.error("Streaming export failed after the response was started: {}", ex.getMessage(), ex);
+                throw ex;
+            }
+        };
+    }
+}
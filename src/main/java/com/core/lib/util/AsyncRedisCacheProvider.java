@@ -0,0 +1,352 @@
+package com.core.lib.util;
+
+import com.core.lib.cache.CacheMetrics;
+import com.core.lib.cache.CacheValueCodec;
+import com.core.lib.cache.HashFieldExpiry;
+import com.core.lib.cache.NearCache;
+import com.core.lib.cache.NearCacheInvalidator;
+import com.core.lib.cache.RedisCircuitBreaker;
+import com.core.lib.cache.RedisUnavailableException;
+import com.core.lib.cache.WriteBehindBuffer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking sibling of {@link RedisCacheProvider} built on the Lettuce reactive API.
+ * <p>
+ * Shares the codec, near cache, invalidation channel, write-behind buffer, per-field expiry
+ * index, circuit breaker and metrics with the blocking provider, so both can be used on the same
+ * hashes: reads see buffered writes first, writes and deletes drop buffered values and expiry
+ * index entries of their fields, and deletes also drop the {@code <hashName>:meta} field of
+ * {@link RedisCacheProvider#getOrLoad}. Buffered writes and expiry index updates use blocking
+ * Redis calls and run on the bounded elastic scheduler, off the Redis event loop.
+ * <p>
+ * Nothing happens until the returned {@link Mono}/{@link Flux} is subscribed; the {@code *Future}
+ * variants subscribe immediately for callers that compose {@link CompletableFuture}s. Read
+ * failures complete empty, write failures complete with the error.
+ */
+@Service
+@Log4j2
+public class AsyncRedisCacheProvider {
+
+    private static final String META_SUFFIX = ":meta";
+
+    private final ReactiveHashOperations<String, String, byte[]> hashOperations;
+    private final CacheValueCodec valueCodec;
+    private final HashFieldExpiry fieldExpiry;
+    private final CacheMetrics metrics;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final NearCache nearCache;
+    private final NearCacheInvalidator invalidator;
+    private final WriteBehindBuffer writeBehind;
+
+    @Autowired
+    public AsyncRedisCacheProvider(@Qualifier("reactiveCacheRedisTemplate") ReactiveRedisTemplate<String, byte[]> redisTemplate,
+                                   CacheValueCodec valueCodec,
+                                   HashFieldExpiry fieldExpiry,
+                                   CacheMetrics metrics,
+                                   RedisCircuitBreaker circuitBreaker,
+                                   ObjectProvider<NearCache> nearCache,
+                                   ObjectProvider<NearCacheInvalidator> invalidator,
+                                   ObjectProvider<WriteBehindBuffer> writeBehind) {
+        this.hashOperations = redisTemplate.opsForHash();
+        this.valueCodec = valueCodec;
+        this.fieldExpiry = fieldExpiry;
+        this.metrics = metrics;
+        this.circuitBreaker = circuitBreaker;
+        this.nearCache = nearCache.getIfAvailable();
+        this.invalidator = invalidator.getIfAvailable();
+        this.writeBehind = writeBehind.getIfAvailable();
+    }
+
+    /**
+     * Fetch single entry from Redis hash.
+     */
+    public <T> Mono<T> getData(String hashName, String key, Class<T> clazz) {
+        return timed(CacheMetrics.OP_GET, hashName, Mono.defer(() -> {
+            T buffered = pending(hashName, key, clazz);
+            if (buffered != null) return Mono.just(buffered);
+            if (nearCache != null) {
+                Optional<T> local = nearCache.get(hashName, key, clazz);
+                if (local.isPresent()) return Mono.just(local.get());
+            }
+            long stamp = nearCache != null ? nearCache.stamp(hashName, key) : 0L;
+            return circuitBreaker.executeAsync(() -> hashOperations.get(hashName, key))
+                    .map(bytes -> deserialize(hashName, bytes, clazz))
+                    .doOnNext(value -> {
+                        if (nearCache != null) nearCache.put(hashName, key, value, stamp);
+                    });
+        }).doOnSuccess(value -> {
+            if (value != null) {
+                metrics.hits(hashName, 1);
+            } else {
+                metrics.misses(hashName, 1);
+            }
+        }).onErrorResume(ex -> {
+            failed(CacheMetrics.OP_GET, hashName, ex, "Error fetching data from Redis");
+            return Mono.empty();
+        }));
+    }
+
+    /**
+     * Same as {@link #getData(String, String, Class)}, started right away.
+     */
+    public <T> CompletableFuture<Optional<T>> getDataFuture(String hashName, String key, Class<T> clazz) {
+        return getData(hashName, key, clazz).map(Optional::of).defaultIfEmpty(Optional.empty()).toFuture();
+    }
+
+    /**
+     * Fetch several entries of a Redis hash in one round trip (HMGET).
+     * The result keeps the input order and leaves out keys that are not present.
+     */
+    public <T> Mono<Map<String, T>> getMany(String hashName, Collection<String> keys, Class<T> clazz) {
+        if (keys.isEmpty()) return Mono.just(Collections.emptyMap());
+        return timed(CacheMetrics.OP_MULTI_GET, hashName, Mono.defer(() -> {
+            Map<String, T> result = new LinkedHashMap<>();
+            List<String> remoteKeys = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                T buffered = pending(hashName, key, clazz);
+                Optional<T> local = buffered != null ? Optional.of(buffered)
+                        : nearCache != null ? nearCache.get(hashName, key, clazz) : Optional.empty();
+                result.put(key, local.orElse(null));
+                if (local.isEmpty()) remoteKeys.add(key);
+            }
+            if (remoteKeys.isEmpty()) return Mono.just(result);
+            long[] stamps = new long[remoteKeys.size()];
+            if (nearCache != null) {
+                for (int i = 0; i < stamps.length; i++) stamps[i] = nearCache.stamp(hashName, remoteKeys.get(i));
+            }
+            return circuitBreaker.executeAsync(() -> hashOperations.multiGet(hashName, remoteKeys))
+                    .map(values -> {
+                        for (int i = 0; i < remoteKeys.size(); i++) {
+                            byte[] bytes = values.get(i);
+                            if (bytes == null) continue;
+                            T value = deserialize(hashName, bytes, clazz);
+                            result.put(remoteKeys.get(i), value);
+                            if (nearCache != null) nearCache.put(hashName, remoteKeys.get(i), value, stamps[i]);
+                        }
+                        return result;
+                    })
+                    .onErrorResume(RedisUnavailableException.class, ex -> {
+                        metrics.error(CacheMetrics.OP_MULTI_GET, hashName, ex);
+                        return Mono.just(result); // serve what the buffer and near cache had
+                    });
+        }).map(result -> {
+            result.values().removeIf(Objects::isNull);
+            metrics.hits(hashName, result.size());
+            metrics.misses(hashName, keys.size() - result.size());
+            return result;
+        }).onErrorResume(ex -> {
+            failed(CacheMetrics.OP_MULTI_GET, hashName, ex, "Error fetching multiple data from Redis");
+            return Mono.just(Collections.emptyMap());
+        }));
+    }
+
+    /**
+     * Same as {@link #getMany(String, Collection, Class)}, started right away.
+     */
+    public <T> CompletableFuture<Map<String, T>> getManyFuture(String hashName, Collection<String> keys, Class<T> clazz) {
+        return getMany(hashName, keys, clazz).toFuture();
+    }
+
+    /**
+     * Lazily iterate a Redis hash with HSCAN, {@code batchSize} fields per round trip, starting
+     * with the fields still waiting in the write-behind buffer. Cancelling the subscription stops the scan.
+     */
+    public <T> Flux<Map.Entry<String, T>> streamAll(String hashName, Class<T> clazz, int batchSize) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            Map<String, byte[]> buffered = pendingValues(hashName);
+            return Flux.fromIterable(buffered.entrySet())
+                    .concatWith(circuitBreaker.executeMany(() ->
+                                    hashOperations.scan(hashName, ScanOptions.scanOptions().count(batchSize).build()))
+                            .filter(e -> !buffered.containsKey(e.getKey())))
+                    .map(e -> Map.entry(e.getKey(), deserialize(hashName, e.getValue(), clazz)))
+                    .doFinally(ignored -> metrics.recordOperation(CacheMetrics.OP_SCAN, hashName, start));
+        }).onErrorResume(ex -> {
+            failed(CacheMetrics.OP_SCAN, hashName, ex, "Error streaming data from Redis");
+            return Flux.empty();
+        });
+    }
+
+    /**
+     * Add data into Redis hash. Writes to hashes configured for write-behind are buffered.
+     */
+    public <T> Mono<Void> addData(String hashName, String key, T data) {
+        return timed(CacheMetrics.OP_PUT, hashName, Mono.defer(() -> {
+            byte[] bytes = serialize(hashName, data);
+            List<String> keys = List.of(key);
+            if (writeBehind != null && writeBehind.isBuffered(hashName)) {
+                return blocking(() -> writeBehind.offer(hashName, key, bytes)).flatMap(buffered -> {
+                    if (!buffered) return write(hashName, keys, hashOperations.put(hashName, key, bytes));
+                    return forgetFieldExpiry(hashName, keys)
+                            .doOnSuccess(ignored -> {
+                                if (nearCache != null) nearCache.invalidate(hashName, key);
+                            });
+                });
+            }
+            return write(hashName, keys, hashOperations.put(hashName, key, bytes));
+        }).doOnError(ex -> failed(CacheMetrics.OP_PUT, hashName, ex, "Error adding data into Redis")));
+    }
+
+    /**
+     * Same as {@link #addData(String, String, Object)}, started right away.
+     */
+    public <T> CompletableFuture<Void> addDataFuture(String hashName, String key, T data) {
+        return addData(hashName, key, data).toFuture();
+    }
+
+    /**
+     * Add several entries into a Redis hash in one round trip.
+     */
+    public <T> Mono<Void> putAll(String hashName, Map<String, T> data) {
+        if (data.isEmpty()) return Mono.empty();
+        return timed(CacheMetrics.OP_PUT_ALL, hashName, Mono.defer(() -> {
+            Map<String, byte[]> serialized = new LinkedHashMap<>(data.size() * 2);
+            data.forEach((key, value) -> serialized.put(key, serialize(hashName, value)));
+            return write(hashName, List.copyOf(data.keySet()), hashOperations.putAll(hashName, serialized));
+        }).doOnError(ex -> failed(CacheMetrics.OP_PUT_ALL, hashName, ex, "Error adding multiple data into Redis")));
+    }
+
+    /**
+     * Delete a key from Redis hash, emitting whether it existed.
+     */
+    public Mono<Boolean> deleteData(String hashName, String key) {
+        List<String> keys = List.of(key);
+        return timed(CacheMetrics.OP_DELETE, hashName, discardPending(hashName, keys)
+                .then(circuitBreaker.executeAsync(() -> hashOperations.remove(hashName + META_SUFFIX, key)
+                        .then(hashOperations.remove(hashName, key))))
+                .flatMap(removed -> forgetFieldExpiry(hashName, keys)
+                        .then(forgetFieldExpiry(hashName + META_SUFFIX, keys))
+                        .thenReturn(removed > 0))
+                .doOnSuccess(ignored -> invalidateLocal(hashName, keys)))
+                .onErrorResume(ex -> {
+                    failed(CacheMetrics.OP_DELETE, hashName, ex, "Error deleting data from Redis");
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Same as {@link #deleteData(String, String)}, started right away.
+     */
+    public CompletableFuture<Boolean> deleteDataFuture(String hashName, String key) {
+        return deleteData(hashName, key).toFuture();
+    }
+
+    /**
+     * Synchronous write: drop buffered values of the fields first so a later flush cannot
+     * overwrite it, then clear their expiry index entries and invalidate them.
+     */
+    private <R> Mono<Void> write(String hashName, List<String> keys, Mono<R> call) {
+        return discardPending(hashName, keys)
+                .then(circuitBreaker.executeAsync(() -> call))
+                .then(forgetFieldExpiry(hashName, keys))
+                .doOnSuccess(ignored -> invalidateLocal(hashName, keys));
+    }
+
+    private <T> Mono<T> timed(String operation, String hashName, Mono<T> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.doFinally(ignored -> metrics.recordOperation(operation, hashName, start));
+        });
+    }
+
+    /**
+     * Count a failed operation; an open circuit breaker is expected and not logged.
+     */
+    private void failed(String operation, String hashName, Throwable ex, String message) {
+        metrics.error(operation, hashName, ex);
+        if (!(ex instanceof RedisUnavailableException)) log.error("{}: {}", message, ex.getMessage(), ex);
+    }
+
+    private <T> T pending(String hashName, String key, Class<T> clazz) {
+        if (writeBehind == null || !writeBehind.isBuffered(hashName)) return null;
+        byte[] bytes = writeBehind.pendingValue(hashName, key);
+        return bytes != null ? deserialize(hashName, bytes, clazz) : null;
+    }
+
+    private Map<String, byte[]> pendingValues(String hashName) {
+        if (writeBehind == null || !writeBehind.isBuffered(hashName)) return Collections.emptyMap();
+        return writeBehind.pendingValues(hashName);
+    }
+
+    private Mono<Void> discardPending(String hashName, Collection<String> keys) {
+        if (writeBehind == null || !writeBehind.isBuffered(hashName)) return Mono.empty();
+        return blocking(() -> {
+            writeBehind.discard(hashName, keys);
+            return true;
+        }).then();
+    }
+
+    private Mono<Void> forgetFieldExpiry(String hashName, Collection<String> keys) {
+        if (!fieldExpiry.isIndexed(hashName)) return Mono.empty();
+        return blocking(() -> {
+            circuitBreaker.run(() -> fieldExpiry.forget(hashName, keys));
+            return true;
+        }).then();
+    }
+
+    /**
+     * Run a call of the blocking shared components off the Redis event loop.
+     */
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private <T> byte[] serialize(String hashName, T data) {
+        long start = System.nanoTime();
+        try {
+            byte[] bytes = valueCodec.encode(hashName, data);
+            metrics.recordCodec("serialize", hashName, start);
+            metrics.recordPayload("write", hashName, bytes.length);
+            return bytes;
+        } catch (IOException ex) {
+            throw new RuntimeException("Serialization error", ex);
+        }
+    }
+
+    private <T> T deserialize(String hashName, byte[] bytes, Class<T> clazz) {
+        long start = System.nanoTime();
+        try {
+            T value = valueCodec.decode(bytes, clazz);
+            metrics.recordCodec("deserialize", hashName, start);
+            metrics.recordPayload("read", hashName, bytes.length);
+            return value;
+        } catch (IOException ex) {
+            throw new RuntimeException("Deserialization error", ex);
+        }
+    }
+
+    /**
+     * Drop local entries right away; the pub/sub publish is blocking, so it is moved off the
+     * Redis event loop.
+     */
+    private void invalidateLocal(String hashName, Collection<String> keys) {
+        if (nearCache != null) keys.forEach(key -> nearCache.invalidate(hashName, key));
+        if (invalidator != null) {
+            List<String> changed = List.copyOf(keys);
+            Schedulers.boundedElastic().schedule(() -> invalidator.publishAll(hashName, changed));
+        }
+    }
+}
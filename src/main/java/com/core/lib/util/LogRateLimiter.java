@@ -0,0 +1,52 @@
+package com.core.lib.util;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Lets at most {@code limit} log events per key through in each time window.
+ * <p>
+ * {@link #tryAcquire(String)} returns how many events of that key were suppressed since the last
+ * one that got through, so the next logged line can report them, or {@code -1} when the event
+ * must be dropped. The number of tracked keys is capped; further keys share one bucket.
+ */
+public class LogRateLimiter {
+
+    private static final int MAX_KEYS = 1024;
+    private static final String OVERFLOW_KEY = "other";
+
+    private final int limit;
+    private final long windowNanos;
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public LogRateLimiter(int limit, Duration window) {
+        this.limit = limit;
+        this.windowNanos = window.toNanos();
+    }
+
+    public long tryAcquire(String key) {
+        String bucketKey = buckets.size() < MAX_KEYS || buckets.containsKey(key) ? key : OVERFLOW_KEY;
+        Bucket bucket = buckets.computeIfAbsent(bucketKey, ignored -> new Bucket());
+        synchronized (bucket) {
+            long now = System.nanoTime();
+            if (now - bucket.windowStart >= windowNanos) {
+                bucket.windowStart = now;
+                bucket.count = 0;
+            }
+            if (bucket.count++ < limit) {
+                long suppressed = bucket.suppressed;
+                bucket.suppressed = 0;
+                return suppressed;
+            }
+            bucket.suppressed++;
+            return -1;
+        }
+    }
+
+    private static final class Bucket {
+        private long windowStart = System.nanoTime();
+        private int count;
+        private long suppressed;
+    }
+}
@@ -0,0 +1,90 @@
+package com.core.lib.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.function.Supplier;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, to catch N+1 regressions.
+ * <p>
+ * Registered as Hibernate statement inspector with {@code corelib.jpa.query-count.enabled=true},
+ * typically in the test profile. Tests wrap the code under test:
+ * <pre>{@code
+ * Page<Client> page = QueryCounter.assertAtMost(3, () -> clientRepository.findAll(PageRequest.of(0, 500)));
+ * }</pre>
+ * Counting is off outside {@link #count}/{@link #assertAtMost}, so the inspector costs a
+ * ThreadLocal read per statement. Both fail with {@link IllegalStateException} when no inspector
+ * was created, e.g. the property is off or the application registered its own inspector, instead
+ * of reporting zero statements. An application inspector can delegate to a {@code QueryCounter}.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNTER = new ThreadLocal<>();
+
+    private static volatile boolean installed;
+
+    public QueryCounter() {
+        installed = true;
+    }
+
+    /**
+     * Whether an inspector was created, i.e. statements are being counted.
+     */
+    public static boolean isInstalled() {
+        return installed;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        long[] counter = COUNTER.get();
+        if (counter != null) counter[0]++;
+        return sql;
+    }
+
+    /**
+     * Run {@code work} and return the number of statements it prepared.
+     */
+    public static long count(Runnable work) {
+        return measure(() -> {
+            work.run();
+            return null;
+        }).statements();
+    }
+
+    /**
+     * Run {@code work} and fail with {@link AssertionError} when it prepared more than
+     * {@code maxStatements} statements.
+     */
+    public static <T> T assertAtMost(long maxStatements, Supplier<T> work) {
+        Measured<T> measured = measure(work);
+        if (measured.statements() > maxStatements) {
+            throw new AssertionError("Expected at most " + maxStatements + " SQL statements but "
+                    + measured.statements() + " were executed");
+        }
+        return measured.result();
+    }
+
+    private static <T> Measured<T> measure(Supplier<T> work) {
+        if (!installed) {
+            throw new IllegalStateException("QueryCounter is not registered as Hibernate statement inspector, "
+                    + "set corelib.jpa.query-count.enabled=true or delegate to it from the application's inspector");
+        }
+        long[] outer = COUNTER.get();
+        long[] counter = new long[1];
+        COUNTER.set(counter);
+        try {
+            T result = work.get();
+            return new Measured<>(result, counter[0]);
+        } finally {
+            if (outer != null) {
+                outer[0] += counter[0];
+                COUNTER.set(outer);
+            } else {
+                COUNTER.remove();
+            }
+        }
+    }
+
+    private record Measured<T>(T result, long statements) {
+    }
+}
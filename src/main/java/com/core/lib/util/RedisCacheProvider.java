@@ -1,56 +1,147 @@
 package com.core.lib.util;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.core.lib.cache.CacheEntryMeta;
+import com.core.lib.cache.CacheMetrics;
+import com.core.lib.cache.CacheValueCodec;
+import com.core.lib.cache.DistributedLease;
+import com.core.lib.cache.HashFieldExpiry;
+import com.core.lib.cache.InvalidationStats;
+import com.core.lib.cache.NearCache;
+import com.core.lib.cache.NearCacheInvalidator;
+import com.core.lib.cache.NearCacheKey;
+import com.core.lib.cache.NearCacheStats;
+import com.core.lib.cache.RedisCircuitBreaker;
+import com.core.lib.cache.RedisUnavailableException;
+import com.core.lib.cache.WriteBehindBuffer;
+import com.core.lib.cache.WriteBehindStats;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 @Log4j2
 public class RedisCacheProvider {
 
-    private final RedisTemplate<String, String> redisTemplate;
-    private final HashOperations<String, String, String> hashOperations;
-    private final ObjectMapper objectMapper;
+    private static final String META_SUFFIX = ":meta";
+    private static final String LEASE_PREFIX = "lease:";
+    private static final long PEER_LOAD_POLL_MILLIS = 25;
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final HashOperations<String, String, byte[]> hashOperations;
+    private final CacheValueCodec valueCodec;
+    private final NearCache nearCache;
+    private final NearCacheInvalidator invalidator;
+    private final DistributedLease lease;
+    private final HashFieldExpiry fieldExpiry;
+    private final WriteBehindBuffer writeBehind;
+    private final CacheMetrics metrics;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final ConcurrentMap<NearCacheKey, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+
+    @Value("${corelib.cache.scan.threshold:10000}")
+    private Long scanThreshold;
+
+    @Value("${corelib.cache.scan.batch-size:1000}")
+    private Integer scanBatchSize;
+
+    @Value("${corelib.cache.loader.lock-lease:10s}")
+    private Duration loadLease;
+
+    @Value("${corelib.cache.loader.lock-wait:2s}")
+    private Duration loadLeaseWait;
+
+    @Value("${corelib.cache.loader.xfetch-beta:1.0}")
+    private Double xfetchBeta;
 
     @Autowired
-    public RedisCacheProvider(RedisTemplate<String, String> redisTemplate, ObjectMapper objectMapper) {
+    public RedisCacheProvider(@Qualifier("cacheRedisTemplate") RedisTemplate<String, byte[]> redisTemplate,
+                              StringRedisTemplate stringRedisTemplate,
+                              CacheValueCodec valueCodec,
+                              HashFieldExpiry fieldExpiry,
+                              CacheMetrics metrics,
+                              RedisCircuitBreaker circuitBreaker,
+                              ObjectProvider<NearCache> nearCache,
+                              ObjectProvider<NearCacheInvalidator> invalidator,
+                              ObjectProvider<WriteBehindBuffer> writeBehind) {
         this.redisTemplate = redisTemplate;
         this.hashOperations = redisTemplate.opsForHash();
-        this.objectMapper = objectMapper;
+        this.valueCodec = valueCodec;
+        this.fieldExpiry = fieldExpiry;
+        this.nearCache = nearCache.getIfAvailable();
+        this.invalidator = invalidator.getIfAvailable();
+        this.writeBehind = writeBehind.getIfAvailable();
+        this.lease = new DistributedLease(stringRedisTemplate, circuitBreaker);
+        this.metrics = metrics;
+        this.circuitBreaker = circuitBreaker;
+        metrics.bindCircuitBreaker(circuitBreaker);
+        if (this.nearCache != null) metrics.bindNearCache(this.nearCache);
+        if (this.writeBehind != null) metrics.bindWriteBehind(this.writeBehind);
     }
 
     /**
-     * Serialize object to JSON
+     * Serialize object with the codec configured for the hash
      */
-    private <T> String serialize(T data) {
+    private <T> byte[] serialize(String hashName, T data) {
+        long start = System.nanoTime();
         try {
-            return objectMapper.writeValueAsString(data);
-        } catch (JsonProcessingException ex) {
+            byte[] bytes = valueCodec.encode(hashName, data);
+            metrics.recordCodec("serialize", hashName, start);
+            metrics.recordPayload("write", hashName, bytes.length);
+            return bytes;
+        } catch (IOException ex) {
             log.error("Error serializing object: {}", ex.getMessage(), ex);
             throw new RuntimeException("Serialization error", ex);
         }
     }
 
     /**
-     * Deserialize JSON to object
+     * Deserialize stored bytes to object, whatever codec they were written with
      */
-    private <T> T deserialize(String json, Class<T> clazz) {
+    private <T> T deserialize(String hashName, byte[] bytes, Class<T> clazz) {
+        long start = System.nanoTime();
         try {
-            return objectMapper.readValue(json, clazz);
+            T value = valueCodec.decode(bytes, clazz);
+            metrics.recordCodec("deserialize", hashName, start);
+            metrics.recordPayload("read", hashName, bytes.length);
+            return value;
         } catch (Exception ex) {
-            log.error("Error deserializing JSON: {}", ex.getMessage(), ex);
+            log.error("Error deserializing cached value: {}", ex.getMessage(), ex);
             throw new RuntimeException("Deserialization error", ex);
         }
     }
@@ -59,15 +150,42 @@ public class RedisCacheProvider {
      * Add data into Redis hash.
      */
     public <T> void addData(String hashName, String key, T data) {
+        addData(hashName, key, data, null);
+    }
+
+    /**
+     * Add data into Redis hash, expiring this field alone after {@code ttl} (no expiry when null).
+     * <p>
+     * Writes without TTL to hashes configured for write-behind are buffered and flushed in batches.
+     */
+    public <T> void addData(String hashName, String key, T data, Duration ttl) {
+        long start = System.nanoTime();
         try {
-            log.info("Adding Data in hashName [{}] for key [{}] into Cache", hashName, key);
-            hashOperations.put(hashName, key, serialize(data));
+            log.debug("Adding Data in hashName [{}] for key [{}] into Cache", hashName, key);
+            byte[] bytes = serialize(hashName, data);
+            if (ttl == null && writeBehind != null && writeBehind.isBuffered(hashName)
+                    && writeBehind.offer(hashName, key, bytes)) {
+                forgetFieldExpiry(hashName, List.of(key));
+                if (nearCache != null) nearCache.invalidate(hashName, key);
+                return;
+            }
+            discardPending(hashName, List.of(key));
+            circuitBreaker.run(() -> hashOperations.put(hashName, key, bytes));
+            applyFieldExpiry(hashName, List.of(key), ttl);
+            invalidateLocal(hashName, key);
+        } catch (RedisUnavailableException ex) {
+            metrics.error(CacheMetrics.OP_PUT, hashName, ex);
+            throw ex;
         } catch (RedisConnectionFailureException ex) {
+            metrics.error(CacheMetrics.OP_PUT, hashName, ex);
             log.error("Redis connection failed while adding data: {}", ex.getMessage(), ex);
             throw ex;
         } catch (DataAccessException ex) {
+            metrics.error(CacheMetrics.OP_PUT, hashName, ex);
             log.error("Redis DataAccessException while adding data: {}", ex.getMessage(), ex);
             throw ex;
+        } finally {
+            metrics.recordOperation(CacheMetrics.OP_PUT, hashName, start);
         }
     }
 
@@ -75,32 +193,428 @@ public class RedisCacheProvider {
      * Fetch single entry from Redis hash.
      */
     public <T> Optional<T> getData(String hashName, String key, Class<T> clazz) {
+        long start = System.nanoTime();
         try {
             log.debug("Fetching Data using hashName [{}] for key [{}] from Cache", hashName, key);
-            String json = hashOperations.get(hashName, key);
-            return json != null ? Optional.of(deserialize(json, clazz)) : Optional.empty();
+            T buffered = pending(hashName, key, clazz);
+            if (buffered != null) {
+                metrics.hits(hashName, 1);
+                return Optional.of(buffered);
+            }
+            if (nearCache != null) {
+                Optional<T> local = nearCache.get(hashName, key, clazz);
+                if (local.isPresent()) {
+                    metrics.hits(hashName, 1);
+                    return local;
+                }
+            }
+            long stamp = nearCache != null ? nearCache.stamp(hashName, key) : 0L;
+            byte[] bytes = circuitBreaker.execute(() -> hashOperations.get(hashName, key));
+            if (bytes == null) {
+                metrics.misses(hashName, 1);
+                return Optional.empty();
+            }
+            T value = deserialize(hashName, bytes, clazz);
+            if (nearCache != null) nearCache.put(hashName, key, value, stamp);
+            metrics.hits(hashName, 1);
+            return Optional.of(value);
+        } catch (RedisUnavailableException ex) {
+            metrics.error(CacheMetrics.OP_GET, hashName, ex);
+            return Optional.empty();
         } catch (Exception ex) {
+            metrics.error(CacheMetrics.OP_GET, hashName, ex);
             log.error("Error fetching data from Redis: {}", ex.getMessage(), ex);
             return Optional.empty();
+        } finally {
+            metrics.recordOperation(CacheMetrics.OP_GET, hashName, start);
+        }
+    }
+
+    /**
+     * Cache-aside read: return the cached value, or load it, store it for {@code ttl} and return it.
+     * <p>
+     * Concurrent callers in this process share one in-flight load per key, and a Redis lease makes
+     * sure only one node runs the loader while others wait for its result (up to
+     * {@code corelib.cache.loader.lock-wait}). Popular keys are refreshed ahead of expiry with
+     * probabilistic early refresh (XFetch), while other callers keep getting the current value.
+     * <p>
+     * The TTL is logical and tracked in a companion {@code <hashName>:meta} hash; values written
+     * through {@link #addData} carry no expiry of their own. Loader exceptions are propagated.
+     */
+    public <T> Optional<T> getOrLoad(String hashName, String key, Class<T> clazz, Supplier<T> loader, Duration ttl) {
+        T buffered = pending(hashName, key, clazz);
+        if (buffered != null) {
+            metrics.hits(hashName, 1);
+            return Optional.of(buffered);
+        }
+        if (nearCache != null) {
+            Optional<T> local = nearCache.get(hashName, key, clazz);
+            if (local.isPresent()) {
+                metrics.hits(hashName, 1);
+                return local;
+            }
+        }
+        long start = System.nanoTime();
+        T current = null;
+        try {
+            long stamp = nearCache != null ? nearCache.stamp(hashName, key) : 0L;
+            List<Object> replies = circuitBreaker.execute(() -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    HashOperations<String, String, byte[]> ops =
+                            ((RedisOperations<String, byte[]>) operations).opsForHash();
+                    ops.get(hashName, key);
+                    ops.get(hashName + META_SUFFIX, key);
+                    return null;
+                }
+            }));
+            byte[] bytes = (byte[]) replies.get(0);
+            CacheEntryMeta meta = CacheEntryMeta.parse((byte[]) replies.get(1));
+            long now = System.currentTimeMillis();
+            if (bytes != null && (meta == null || !meta.isExpired(now))) {
+                current = deserialize(hashName, bytes, clazz);
+                if (meta == null || !meta.shouldRefreshEarly(now, xfetchBeta)) {
+                    if (nearCache != null) nearCache.put(hashName, key, current, stamp);
+                    metrics.hits(hashName, 1);
+                    metrics.recordOperation(CacheMetrics.OP_GET, hashName, start);
+                    return Optional.of(current);
+                }
+                log.debug("Refreshing hashName [{}] key [{}] ahead of expiry", hashName, key);
+            }
+        } catch (RedisUnavailableException ex) {
+            metrics.error(CacheMetrics.OP_GET, hashName, ex);
+        } catch (Exception ex) {
+            metrics.error(CacheMetrics.OP_GET, hashName, ex);
+            log.error("Error fetching data from Redis, loading from source: {}", ex.getMessage(), ex);
+        }
+        metrics.recordOperation(CacheMetrics.OP_GET, hashName, start);
+        if (current != null) {
+            metrics.hits(hashName, 1);
+        } else {
+            metrics.misses(hashName, 1);
+        }
+        long loadStart = System.nanoTime();
+        try {
+            return Optional.ofNullable(coalescedLoad(hashName, key, clazz, loader, ttl, current));
+        } finally {
+            metrics.recordOperation(CacheMetrics.OP_LOAD, hashName, loadStart);
+        }
+    }
+
+    /**
+     * Fetch several entries of a Redis hash in one round trip (HMGET).
+     * The result keeps the input order and leaves out keys that are not present.
+     */
+    public <T> Map<String, T> getMany(String hashName, Collection<String> keys, Class<T> clazz) {
+        if (keys.isEmpty()) return Collections.emptyMap();
+        long start = System.nanoTime();
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug("Fetching [{}] keys using hashName [{}] from Cache", keys.size(), hashName);
+            }
+            Map<String, T> result = new LinkedHashMap<>();
+            List<String> remoteKeys = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                T buffered = pending(hashName, key, clazz);
+                Optional<T> local = buffered != null ? Optional.of(buffered)
+                        : nearCache != null ? nearCache.get(hashName, key, clazz) : Optional.empty();
+                result.put(key, local.orElse(null));
+                if (local.isEmpty()) remoteKeys.add(key);
+            }
+            if (!remoteKeys.isEmpty()) {
+                long[] stamps = stamps(hashName, remoteKeys);
+                List<byte[]> values;
+                try {
+                    values = circuitBreaker.execute(() -> hashOperations.multiGet(hashName, remoteKeys));
+                } catch (RedisUnavailableException ex) {
+                    metrics.error(CacheMetrics.OP_MULTI_GET, hashName, ex);
+                    values = null; // serve what the near cache had
+                }
+                collect(hashName, remoteKeys, values, clazz, stamps, result);
+            }
+            result.values().removeIf(Objects::isNull);
+            metrics.hits(hashName, result.size());
+            metrics.misses(hashName, keys.size() - result.size());
+            return result;
+        } catch (Exception ex) {
+            metrics.error(CacheMetrics.OP_MULTI_GET, hashName, ex);
+            log.error("Error fetching multiple data from Redis: {}", ex.getMessage(), ex);
+            return Collections.emptyMap();
+        } finally {
+            metrics.recordOperation(CacheMetrics.OP_MULTI_GET, hashName, start);
+        }
+    }
+
+    /**
+     * Fetch entries from several Redis hashes in a single pipelined flush.
+     * Each inner map keeps the input order and leaves out keys that are not present.
+     */
+    public <T> Map<String, Map<String, T>> getManyPipelined(Map<String, ? extends Collection<String>> keysByHash,
+                                                            Class<T> clazz) {
+        if (keysByHash.isEmpty()) return Collections.emptyMap();
+        long start = System.nanoTime();
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug("Fetching keys of [{}] hashes from Cache in one pipeline", keysByHash.size());
+            }
+            List<String> hashNames = new ArrayList<>(keysByHash.keySet());
+            List<Map<String, T>> entriesByHash = new ArrayList<>(hashNames.size());
+            List<List<String>> keyLists = new ArrayList<>(hashNames.size());
+            List<long[]> stamps = new ArrayList<>(hashNames.size());
+            for (String hashName : hashNames) {
+                Map<String, T> entries = new LinkedHashMap<>();
+                List<String> remoteKeys = new ArrayList<>();
+                for (String key : keysByHash.get(hashName)) {
+                    T buffered = pending(hashName, key, clazz);
+                    Optional<T> local = buffered != null ? Optional.of(buffered)
+                            : nearCache != null ? nearCache.get(hashName, key, clazz) : Optional.empty();
+                    entries.put(key, local.orElse(null));
+                    if (local.isEmpty()) remoteKeys.add(key);
+                }
+                entriesByHash.add(entries);
+                keyLists.add(remoteKeys);
+                stamps.add(stamps(hashName, remoteKeys));
+            }
+            List<Object> replies = null;
+            if (keyLists.stream().anyMatch(remoteKeys -> !remoteKeys.isEmpty())) {
+                try {
+                    replies = circuitBreaker.execute(() -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        public <K, V> Object execute(RedisOperations<K, V> operations) {
+                            HashOperations<String, String, byte[]> ops =
+                                    ((RedisOperations<String, byte[]>) operations).opsForHash();
+                            for (int i = 0; i < hashNames.size(); i++) {
+                                // HMGET needs at least one field; hashes served locally are left out
+                                if (!keyLists.get(i).isEmpty()) ops.multiGet(hashNames.get(i), keyLists.get(i));
+                            }
+                            return null;
+                        }
+                    }));
+                } catch (RedisUnavailableException ex) {
+                    metrics.error(CacheMetrics.OP_MULTI_GET, CacheMetrics.MULTI_HASH, ex);
+                    // serve what the near cache had
+                }
+            }
+
+            Map<String, Map<String, T>> result = new LinkedHashMap<>();
+            int reply = 0;
+            for (int i = 0; i < hashNames.size(); i++) {
+                @SuppressWarnings("unchecked")
+                List<byte[]> values = replies == null || keyLists.get(i).isEmpty() ? null
+                        : (List<byte[]>) replies.get(reply++);
+                Map<String, T> entries = entriesByHash.get(i);
+                int requested = entries.size();
+                collect(hashNames.get(i), keyLists.get(i), values, clazz, stamps.get(i), entries);
+                entries.values().removeIf(Objects::isNull);
+                result.put(hashNames.get(i), entries);
+                metrics.hits(hashNames.get(i), entries.size());
+                metrics.misses(hashNames.get(i), requested - entries.size());
+            }
+            return result;
+        } catch (Exception ex) {
+            metrics.error(CacheMetrics.OP_MULTI_GET, CacheMetrics.MULTI_HASH, ex);
+            log.error("Error fetching pipelined data from Redis: {}", ex.getMessage(), ex);
+            return Collections.emptyMap();
+        } finally {
+            metrics.recordOperation(CacheMetrics.OP_MULTI_GET, CacheMetrics.MULTI_HASH, start);
+        }
+    }
+
+    /**
+     * Lazily iterate a Redis hash with HSCAN, {@code batchSize} fields per round trip.
+     * <p>
+     * Values are deserialized as the stream is consumed, so memory stays bounded by one page.
+     * The stream holds a server cursor and must be closed (try-with-resources). As with any
+     * HSCAN, a field may be returned more than once if the hash is rehashed during iteration.
+     * <p>
+     * Each page goes through the circuit breaker like any other call. A page that fails, or is
+     * rejected by the open breaker, is counted as a scan error and ends the stream with the
+     * {@link DataAccessException} (a {@link RedisUnavailableException} when rejected).
+     */
+    public <T> Stream<Map.Entry<String, T>> streamAll(String hashName, Class<T> clazz, int batchSize) {
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug("Streaming All Data using hashName [{}] from Cache in pages of [{}]", hashName, batchSize);
+            }
+            long start = System.nanoTime();
+            Map<String, byte[]> buffered = pendingValues(hashName);
+            Cursor<Map.Entry<String, byte[]>> cursor = circuitBreaker.execute(() ->
+                    hashOperations.scan(hashName, ScanOptions.scanOptions().count(batchSize).build()));
+            return Stream.concat(buffered.entrySet().stream(),
+                            scanPages(hashName, cursor, batchSize).filter(e -> !buffered.containsKey(e.getKey())))
+                    .map(e -> Map.entry(e.getKey(), deserialize(hashName, e.getValue(), clazz)))
+                    .onClose(() -> metrics.recordOperation(CacheMetrics.OP_SCAN, hashName, start));
+        } catch (RedisUnavailableException ex) {
+            metrics.error(CacheMetrics.OP_SCAN, hashName, ex);
+            return Stream.empty();
+        } catch (Exception ex) {
+            metrics.error(CacheMetrics.OP_SCAN, hashName, ex);
+            log.error("Error streaming data from Redis: {}", ex.getMessage(), ex);
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Entries of an HSCAN cursor, read {@code batchSize} at a time through the circuit breaker.
+     * Closing the stream closes the cursor.
+     */
+    private Stream<Map.Entry<String, byte[]>> scanPages(String hashName, Cursor<Map.Entry<String, byte[]>> cursor,
+                                                        int batchSize) {
+        Iterator<Map.Entry<String, byte[]>> entries = new Iterator<>() {
+            private Iterator<Map.Entry<String, byte[]>> page = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                if (!page.hasNext()) page = nextPage(hashName, cursor, batchSize).iterator();
+                return page.hasNext();
+            }
+
+            @Override
+            public Map.Entry<String, byte[]> next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return page.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(entries, Spliterator.ORDERED), false)
+                .onClose(cursor::close);
+    }
+
+    private List<Map.Entry<String, byte[]>> nextPage(String hashName, Cursor<Map.Entry<String, byte[]>> cursor,
+                                                     int batchSize) {
+        try {
+            return circuitBreaker.execute(() -> {
+                List<Map.Entry<String, byte[]>> page = new ArrayList<>(batchSize);
+                while (page.size() < batchSize && cursor.hasNext()) page.add(cursor.next());
+                return page;
+            });
+        } catch (RuntimeException ex) {
+            metrics.error(CacheMetrics.OP_SCAN, hashName, ex);
+            throw ex; // the consumer of the stream handles it
         }
     }
 
     /**
      * Fetch all entries from Redis hash.
+     * <p>
+     * Hashes larger than {@code corelib.cache.scan.threshold} fields are read with HSCAN pages
+     * instead of a single HGETALL, so Redis is not blocked and no raw copy of the hash is held.
      */
     public <T> Map<String, T> getAllData(String hashName, Class<T> clazz) {
+        long start = System.nanoTime();
         try {
             log.debug("Fetching All Data using hashName [{}] from Cache", hashName);
-            Map<String, String> allData = hashOperations.entries(hashName);
+            if (circuitBreaker.execute(() -> hashOperations.size(hashName)) > scanThreshold) {
+                try (Stream<Map.Entry<String, T>> entries = streamAll(hashName, clazz, scanBatchSize)) {
+                    return entries.collect(Collectors.toMap(
+                            Map.Entry::getKey, Map.Entry::getValue, (first, second) -> second, LinkedHashMap::new));
+                }
+            }
+            Map<String, byte[]> allData = new LinkedHashMap<>(circuitBreaker.execute(() -> hashOperations.entries(hashName)));
+            allData.putAll(pendingValues(hashName));
             if (allData.isEmpty()) return Collections.emptyMap();
             return allData.entrySet().stream()
                     .collect(Collectors.toMap(
                             Map.Entry::getKey,
-                            e -> deserialize(e.getValue(), clazz)
+                            e -> deserialize(hashName, e.getValue(), clazz)
                     ));
+        } catch (RedisUnavailableException ex) {
+            metrics.error(CacheMetrics.OP_GET_ALL, hashName, ex);
+            return Collections.emptyMap();
         } catch (Exception ex) {
+            metrics.error(CacheMetrics.OP_GET_ALL, hashName, ex);
             log.error("Error fetching all data from Redis: {}", ex.getMessage(), ex);
             return Collections.emptyMap();
+        } finally {
+            metrics.recordOperation(CacheMetrics.OP_GET_ALL, hashName, start);
+        }
+    }
+
+    /**
+     * Add several entries into a Redis hash in one round trip (HSET with multiple fields).
+     */
+    public <T> void putAll(String hashName, Map<String, T> data) {
+        putAll(hashName, data, null);
+    }
+
+    /**
+     * Add several entries into a Redis hash, each field expiring after {@code ttl} (no expiry when null).
+     */
+    public <T> void putAll(String hashName, Map<String, T> data, Duration ttl) {
+        if (data.isEmpty()) return;
+        long start = System.nanoTime();
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug("Adding [{}] keys in hashName [{}] into Cache", data.size(), hashName);
+            }
+            Map<String, byte[]> serialized = serializeAll(hashName, data);
+            discardPending(hashName, data.keySet());
+            circuitBreaker.run(() -> hashOperations.putAll(hashName, serialized));
+            applyFieldExpiry(hashName, data.keySet(), ttl);
+            invalidateLocal(hashName, data.keySet());
+        } catch (RedisUnavailableException ex) {
+            metrics.error(CacheMetrics.OP_PUT_ALL, hashName, ex);
+            throw ex;
+        } catch (RedisConnectionFailureException ex) {
+            metrics.error(CacheMetrics.OP_PUT_ALL, hashName, ex);
+            log.error("Redis connection failed while adding multiple data: {}", ex.getMessage(), ex);
+            throw ex;
+        } catch (DataAccessException ex) {
+            metrics.error(CacheMetrics.OP_PUT_ALL, hashName, ex);
+            log.error("Redis DataAccessException while adding multiple data: {}", ex.getMessage(), ex);
+            throw ex;
+        } finally {
+            metrics.recordOperation(CacheMetrics.OP_PUT_ALL, hashName, start);
+        }
+    }
+
+    /**
+     * Add entries into several Redis hashes in a single pipelined flush.
+     */
+    public <T> void putAllPipelined(Map<String, ? extends Map<String, T>> dataByHash) {
+        putAllPipelined(dataByHash, null);
+    }
+
+    /**
+     * Add entries into several Redis hashes in a single pipelined flush, each field expiring
+     * after {@code ttl} (no expiry when null).
+     */
+    public <T> void putAllPipelined(Map<String, ? extends Map<String, T>> dataByHash, Duration ttl) {
+        if (dataByHash.isEmpty()) return;
+        long start = System.nanoTime();
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug("Adding keys of [{}] hashes into Cache in one pipeline", dataByHash.size());
+            }
+            Map<String, Map<String, byte[]>> serialized = new LinkedHashMap<>();
+            dataByHash.forEach((hashName, data) -> serialized.put(hashName, serializeAll(hashName, data)));
+            dataByHash.forEach((hashName, data) -> discardPending(hashName, data.keySet()));
+            circuitBreaker.run(() -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    HashOperations<String, String, byte[]> ops =
+                            ((RedisOperations<String, byte[]>) operations).opsForHash();
+                    serialized.forEach(ops::putAll);
+                    return null;
+                }
+            }));
+            dataByHash.forEach((hashName, data) -> applyFieldExpiry(hashName, data.keySet(), ttl));
+            dataByHash.forEach((hashName, data) -> invalidateLocal(hashName, data.keySet()));
+        } catch (RedisUnavailableException ex) {
+            metrics.error(CacheMetrics.OP_PUT_ALL, CacheMetrics.MULTI_HASH, ex);
+            throw ex;
+        } catch (RedisConnectionFailureException ex) {
+            metrics.error(CacheMetrics.OP_PUT_ALL, CacheMetrics.MULTI_HASH, ex);
+            log.error("Redis connection failed while adding pipelined data: {}", ex.getMessage(), ex);
+            throw ex;
+        } catch (DataAccessException ex) {
+            metrics.error(CacheMetrics.OP_PUT_ALL, CacheMetrics.MULTI_HASH, ex);
+            log.error("Redis DataAccessException while adding pipelined data: {}", ex.getMessage(), ex);
+            throw ex;
+        } finally {
+            metrics.recordOperation(CacheMetrics.OP_PUT_ALL, CacheMetrics.MULTI_HASH, start);
         }
     }
 
@@ -108,7 +622,7 @@ public class RedisCacheProvider {
      * Update (same as put) data in Redis hash.
      */
     public <T> void updateData(String hashName, String key, T data) {
-        log.info("Updating Data in hashName [{}] for key [{}] in Cache", hashName, key);
+        log.debug("Updating Data in hashName [{}] for key [{}] in Cache", hashName, key);
         addData(hashName, key, data);
     }
 
@@ -116,12 +630,27 @@ public class RedisCacheProvider {
      * Delete a key from Redis hash.
      */
     public boolean deleteData(String hashName, String key) {
+        long start = System.nanoTime();
         try {
-            log.info("Deleting Data in hashName [{}] for key [{}] in Cache", hashName, key);
-            return hashOperations.delete(hashName, key) > 0;
+            log.debug("Deleting Data in hashName [{}] for key [{}] in Cache", hashName, key);
+            discardPending(hashName, List.of(key));
+            boolean deleted = circuitBreaker.execute(() -> {
+                hashOperations.delete(hashName + META_SUFFIX, key);
+                return hashOperations.delete(hashName, key) > 0;
+            });
+            forgetFieldExpiry(hashName, List.of(key));
+            forgetFieldExpiry(hashName + META_SUFFIX, List.of(key));
+            invalidateLocal(hashName, key);
+            return deleted;
+        } catch (RedisUnavailableException ex) {
+            metrics.error(CacheMetrics.OP_DELETE, hashName, ex);
+            return false;
         } catch (Exception ex) {
+            metrics.error(CacheMetrics.OP_DELETE, hashName, ex);
             log.error("Error deleting data from Redis: {}", ex.getMessage(), ex);
             return false;
+        } finally {
+            metrics.recordOperation(CacheMetrics.OP_DELETE, hashName, start);
         }
     }
 
@@ -131,7 +660,10 @@ public class RedisCacheProvider {
     public boolean ifHasKey(String hashName, String key) {
         try {
             log.debug("Checking if hashName [{}] has key [{}] in Cache", hashName, key);
-            return hashOperations.hasKey(hashName, key);
+            if (writeBehind != null && writeBehind.pendingValue(hashName, key) != null) return true;
+            return circuitBreaker.execute(() -> hashOperations.hasKey(hashName, key));
+        } catch (RedisUnavailableException ex) {
+            return false;
         } catch (Exception ex) {
             log.error("Error checking if key exists in Redis: {}", ex.getMessage(), ex);
             return false;
@@ -143,19 +675,39 @@ public class RedisCacheProvider {
      */
     public void setExpiry(String hashName, Duration ttl) {
         try {
-            log.info("Setting expiry of [{}] seconds on hashName [{}]", ttl.getSeconds(), hashName);
-            redisTemplate.expire(hashName, ttl);
+            if (log.isDebugEnabled()) {
+                log.debug("Setting expiry of [{}] seconds on hashName [{}]", ttl.getSeconds(), hashName);
+            }
+            circuitBreaker.run(() -> redisTemplate.expire(hashName, ttl));
+        } catch (RedisUnavailableException ex) {
+            log.debug("Skipping expiry of hashName [{}], Redis is unavailable", hashName);
         } catch (Exception ex) {
             log.error("Error setting expiry on Redis key: {}", ex.getMessage(), ex);
         }
     }
 
+    /**
+     * Get remaining time to live of a single field, empty when it has none or does not exist.
+     */
+    public Optional<Duration> getFieldExpiry(String hashName, String key) {
+        try {
+            return circuitBreaker.execute(() -> fieldExpiry.getExpiry(hashName, key));
+        } catch (RedisUnavailableException ex) {
+            return Optional.empty();
+        } catch (Exception ex) {
+            log.error("Error getting expiry for [{}] key [{}]: {}", hashName, key, ex.getMessage(), ex);
+            return Optional.empty();
+        }
+    }
+
     /**
      * Get expiry for a Redis hash.
      */
     public Optional<Long> getExpiry(String hashName) {
         try {
-            return Optional.of(redisTemplate.getExpire(hashName));
+            return Optional.of(circuitBreaker.execute(() -> redisTemplate.getExpire(hashName)));
+        } catch (RedisUnavailableException ex) {
+            return Optional.empty();
         } catch (Exception ex) {
             log.error("Error getting expiry for [{}]: {}", hashName, ex.getMessage(), ex);
             return Optional.empty();
@@ -168,9 +720,254 @@ public class RedisCacheProvider {
     public void clearHash(String hashName) {
         try {
             log.warn("Clearing all data for hashName [{}]", hashName);
-            redisTemplate.delete(hashName);
+            if (writeBehind != null) writeBehind.discardHash(hashName);
+            circuitBreaker.run(() -> redisTemplate.delete(List.of(hashName, hashName + META_SUFFIX)));
+            for (String name : List.of(hashName, hashName + META_SUFFIX)) {
+                if (fieldExpiry.isIndexed(name)) circuitBreaker.run(() -> fieldExpiry.forgetHash(name));
+            }
+            if (nearCache != null) nearCache.invalidateHash(hashName);
+            if (invalidator != null) invalidator.publish(hashName, null);
+        } catch (RedisUnavailableException ex) {
+            metrics.error(CacheMetrics.OP_CLEAR, hashName, ex);
+            log.debug("Skipping clear of hashName [{}], Redis is unavailable", hashName);
         } catch (Exception ex) {
+            metrics.error(CacheMetrics.OP_CLEAR, hashName, ex);
             log.error("Error clearing Redis hash [{}]: {}", hashName, ex.getMessage(), ex);
         }
     }
+
+    /**
+     * Hit/miss/eviction counters of the near cache, empty when it is disabled.
+     */
+    public Optional<NearCacheStats> getNearCacheStats() {
+        return Optional.ofNullable(nearCache).map(NearCache::stats);
+    }
+
+    /**
+     * Write-behind counters, empty when write-behind is disabled.
+     */
+    public Optional<WriteBehindStats> getWriteBehindStats() {
+        return Optional.ofNullable(writeBehind).map(WriteBehindBuffer::stats);
+    }
+
+    /**
+     * Latency of invalidations received from other nodes, empty when invalidation is disabled.
+     */
+    public Optional<InvalidationStats> getInvalidationStats() {
+        return Optional.ofNullable(invalidator).map(NearCacheInvalidator::stats);
+    }
+
+    /**
+     * Drop a field from the near cache after it was written or deleted in Redis,
+     * here and on every other node.
+     */
+    private void invalidateLocal(String hashName, String key) {
+        if (nearCache != null) nearCache.invalidate(hashName, key);
+        if (invalidator != null) invalidator.publish(hashName, key);
+    }
+
+    /**
+     * Same as {@link #invalidateLocal(String, String)} for a batch, with a single message to peers.
+     */
+    private void invalidateLocal(String hashName, Collection<String> keys) {
+        if (nearCache != null) keys.forEach(key -> nearCache.invalidate(hashName, key));
+        if (invalidator != null) invalidator.publishAll(hashName, keys);
+    }
+
+    /**
+     * Run the loader once per key in this process; other callers wait for that result, or get
+     * {@code stale} right away when an early refresh is already running.
+     */
+    private <T> T coalescedLoad(String hashName, String key, Class<T> clazz, Supplier<T> loader,
+                                Duration ttl, T stale) {
+        NearCacheKey loadKey = new NearCacheKey(hashName, key);
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlightLoads.putIfAbsent(loadKey, own);
+        if (running != null) {
+            if (stale != null) return stale;
+            try {
+                return clazz.cast(running.join());
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            T value = loadWithLease(hashName, key, clazz, loader, ttl, stale);
+            own.complete(value);
+            return value;
+        } catch (RuntimeException ex) {
+            own.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlightLoads.remove(loadKey, own);
+        }
+    }
+
+    /**
+     * Load under a cross-node lease. Without the lease, serve {@code stale} or wait for the
+     * owner to publish the value, then fall back to loading locally. Every Redis call goes
+     * through the circuit breaker, so a rejected call loads right away instead of waiting.
+     */
+    private <T> T loadWithLease(String hashName, String key, Class<T> clazz, Supplier<T> loader,
+                                Duration ttl, T stale) {
+        if (circuitBreaker.state() == RedisCircuitBreaker.State.OPEN) {
+            return loader.get(); // Redis is down: no lease, nothing to store
+        }
+        String leaseKey = LEASE_PREFIX + hashName + ":" + key;
+        String token = UUID.randomUUID().toString();
+        boolean owner = lease.tryAcquire(leaseKey, token, loadLease);
+        try {
+            if (!owner) {
+                if (stale != null) return stale;
+                Optional<T> loadedByPeer = awaitPeerLoad(hashName, key, clazz);
+                if (loadedByPeer.isPresent()) return loadedByPeer.get();
+            }
+            long start = System.nanoTime();
+            T value = loader.get();
+            long deltaMillis = (System.nanoTime() - start) / 1_000_000L;
+            if (value != null) storeLoaded(hashName, key, value, ttl, deltaMillis);
+            return value;
+        } finally {
+            if (owner) lease.release(leaseKey, token);
+        }
+    }
+
+    /**
+     * Poll Redis until another node stored a fresh value or the lease wait is over.
+     */
+    private <T> Optional<T> awaitPeerLoad(String hashName, String key, Class<T> clazz) {
+        long deadline = System.nanoTime() + loadLeaseWait.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(PEER_LOAD_POLL_MILLIS);
+                CacheEntryMeta meta = CacheEntryMeta.parse(
+                        circuitBreaker.execute(() -> hashOperations.get(hashName + META_SUFFIX, key)));
+                if (meta != null && !meta.isExpired(System.currentTimeMillis())) {
+                    byte[] bytes = circuitBreaker.execute(() -> hashOperations.get(hashName, key));
+                    if (bytes != null) return Optional.of(deserialize(hashName, bytes, clazz));
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RedisUnavailableException ex) {
+                break;
+            } catch (Exception ex) {
+                log.error("Error waiting for peer load of hashName [{}] key [{}]: {}", hashName, key, ex.getMessage());
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Store a loaded value with its load metadata in one pipeline. Failures are logged, the
+     * caller still gets the loaded value.
+     */
+    private <T> void storeLoaded(String hashName, String key, T value, Duration ttl, long deltaMillis) {
+        try {
+            byte[] bytes = serialize(hashName, value);
+            byte[] meta = new CacheEntryMeta(System.currentTimeMillis() + ttl.toMillis(), deltaMillis).encode();
+            discardPending(hashName, List.of(key));
+            circuitBreaker.run(() -> redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    HashOperations<String, String, byte[]> ops =
+                            ((RedisOperations<String, byte[]>) operations).opsForHash();
+                    ops.put(hashName, key, bytes);
+                    ops.put(hashName + META_SUFFIX, key, meta);
+                    return null;
+                }
+            }));
+            circuitBreaker.run(() -> {
+                fieldExpiry.expire(hashName, List.of(key), ttl);
+                fieldExpiry.expire(hashName + META_SUFFIX, List.of(key), ttl);
+            });
+            invalidateLocal(hashName, key);
+        } catch (RedisUnavailableException ex) {
+            log.debug("Not storing loaded hashName [{}] key [{}], Redis is unavailable", hashName, key);
+        } catch (Exception ex) {
+            log.error("Error storing loaded data in Redis: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Value of a field still waiting in the write-behind buffer, so this process reads its own writes.
+     */
+    private <T> T pending(String hashName, String key, Class<T> clazz) {
+        if (writeBehind == null || !writeBehind.isBuffered(hashName)) return null;
+        byte[] bytes = writeBehind.pendingValue(hashName, key);
+        return bytes != null ? deserialize(hashName, bytes, clazz) : null;
+    }
+
+    /**
+     * Every field of a hash still waiting in the write-behind buffer.
+     */
+    private Map<String, byte[]> pendingValues(String hashName) {
+        if (writeBehind == null || !writeBehind.isBuffered(hashName)) return Collections.emptyMap();
+        return writeBehind.pendingValues(hashName);
+    }
+
+    /**
+     * Drop buffered writes of fields about to be written or deleted synchronously, so a later
+     * flush cannot overwrite the newer value.
+     */
+    private void discardPending(String hashName, Collection<String> keys) {
+        if (writeBehind != null && writeBehind.isBuffered(hashName)) writeBehind.discard(hashName, keys);
+    }
+
+    /**
+     * Set the per-field TTL of freshly written fields, or clear a previous one when {@code ttl} is null.
+     */
+    private void applyFieldExpiry(String hashName, Collection<String> keys, Duration ttl) {
+        if (ttl != null) {
+            circuitBreaker.run(() -> fieldExpiry.expire(hashName, keys, ttl));
+        } else {
+            forgetFieldExpiry(hashName, keys);
+        }
+    }
+
+    /**
+     * Drop fields from the expiry index; only hashes that have one cost a Redis call.
+     */
+    private void forgetFieldExpiry(String hashName, Collection<String> keys) {
+        if (fieldExpiry.isIndexed(hashName)) circuitBreaker.run(() -> fieldExpiry.forget(hashName, keys));
+    }
+
+    /**
+     * Serialize every value of a batch, keeping the key order.
+     */
+    private <T> Map<String, byte[]> serializeAll(String hashName, Map<String, T> data) {
+        Map<String, byte[]> serialized = new LinkedHashMap<>(data.size() * 2);
+        data.forEach((key, value) -> serialized.put(key, serialize(hashName, value)));
+        return serialized;
+    }
+
+    /**
+     * Near cache stamps of the fields, taken before reading them from Redis.
+     */
+    private long[] stamps(String hashName, List<String> keys) {
+        long[] stamps = new long[keys.size()];
+        if (nearCache != null) {
+            for (int i = 0; i < stamps.length; i++) stamps[i] = nearCache.stamp(hashName, keys.get(i));
+        }
+        return stamps;
+    }
+
+    /**
+     * Deserialize HMGET replies into {@code target} (aligned with {@code keys}) and fill the near cache.
+     */
+    private <T> void collect(String hashName, List<String> keys, List<byte[]> values, Class<T> clazz,
+                             long[] stamps, Map<String, T> target) {
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] bytes = values != null ? values.get(i) : null;
+            if (bytes == null) {
+                target.putIfAbsent(keys.get(i), null);
+                continue;
+            }
+            T value = deserialize(hashName, bytes, clazz);
+            target.put(keys.get(i), value);
+            if (nearCache != null) nearCache.put(hashName, keys.get(i), value, stamps[i]);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.core.lib.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier, typically while blocking inside a
+ * {@code synchronized} block or a native frame of a driver.
+ * <p>
+ * Listens to the JFR {@code jdk.VirtualThreadPinned} event in-process. Each pinning longer than
+ * the threshold increments {@code corelib.threads.virtual.pinned} and is logged with its stack,
+ * at most once per minute per pinning site.
+ */
+@Log4j2
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final Counter pinned;
+    private final LogRateLimiter logLimiter = new LogRateLimiter(1, Duration.ofMinutes(1));
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry, Duration threshold) {
+        this.threshold = threshold;
+        this.pinned = Counter.builder("corelib.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(registry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Reporting virtual thread pinning longer than [{}] ms", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String site = pinningSite(frames);
+        long suppressed = logLimiter.tryAcquire(site);
+        if (suppressed < 0) return;
+        log.warn("Virtual thread pinned for [{}] ms at {} (similar events suppressed: [{}])\n{}",
+                event.getDuration().toMillis(), site, suppressed,
+                frames.stream().limit(LOGGED_FRAMES).map(VirtualThreadPinningMonitor::format)
+                        .collect(Collectors.joining("\n\tat ", "\tat ", "")));
+    }
+
+    /**
+     * First frame outside the JDK, which is where the application or a driver blocked.
+     */
+    private static String pinningSite(List<RecordedFrame> frames) {
+        return frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(VirtualThreadPinningMonitor::format)
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk.") && !frame.startsWith("sun."))
+                .findFirst()
+                .orElse("unknown");
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    @Override
+    public void destroy() {
+        if (stream != null) stream.close();
+    }
+}
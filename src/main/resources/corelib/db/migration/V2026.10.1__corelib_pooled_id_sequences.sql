@@ -0,0 +1,44 @@
+-- Moves the library entities from IDENTITY/SERIAL ids to sequences matching their
+-- @SequenceGenerator (INCREMENT BY 50 = allocationSize, pooled-lo optimizer), so Hibernate
+-- can assign ids without a round trip per row and batch the INSERTs.
+--
+-- Flyway: add classpath:corelib/db/migration to spring.flyway.locations. The script is
+-- idempotent and can also be run by hand or from Liquibase (sqlFile, splitStatements=false).
+--
+-- Each sequence starts after the current max id, and becomes the column default, so rows
+-- inserted outside Hibernate draw from the same sequence and cannot collide with its blocks.
+-- On a re-run the sequence never moves backwards: it continues after the max id or after the
+-- last block Hibernate reserved, whichever is higher, so reserved but unused ids stay reserved.
+DO $$
+DECLARE
+    t          record;
+    first_free bigint;
+    next_value bigint;
+BEGIN
+    FOR t IN
+        SELECT * FROM (VALUES
+            ('activity',       'activity_id',  'activity_seq'),
+            ('client',         'client_id',    'client_seq'),
+            ('client-contact', 'contact_id',   'client_contact_seq'),
+            ('country',        'country_id',   'country_seq'),
+            ('custodian',      'custodian_id', 'custodian_seq'),
+            ('role',           'role_id',      'role_seq'),
+            ('tax_record',     'id',           'tax_record_seq'),
+            ('transaction',    'id',           'transaction_seq')
+        ) AS v (table_name, id_column, sequence_name)
+    LOOP
+        IF to_regclass(quote_ident(t.table_name)) IS NULL THEN
+            CONTINUE;
+        END IF;
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', t.sequence_name);
+        EXECUTE format('SELECT COALESCE(max(%I), 0) + 1 FROM %I', t.id_column, t.table_name)
+            INTO first_free;
+        EXECUTE format('SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM %I',
+                       t.sequence_name)
+            INTO next_value;
+        PERFORM setval(quote_ident(t.sequence_name)::regclass, GREATEST(first_free, next_value), false);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I DROP IDENTITY IF EXISTS', t.table_name, t.id_column);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I SET DEFAULT nextval(%L)',
+                       t.table_name, t.id_column, t.sequence_name);
+    END LOOP;
+END $$;
@@ -0,0 +1,6 @@
+-- Composite index behind TransactionKeysetRepository: both the (txn_date, id) seek condition
+-- and the ORDER BY txn_date, id of pages and exports are served by one index range scan, and
+-- descending scans read it backwards.
+-- CONCURRENTLY keeps the table writable during the build; Flyway runs this script outside a
+-- transaction for that reason.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_txn_date_id ON transaction (txn_date, id);
@@ -0,0 +1,85 @@
+-- Turns the transaction table into a table range-partitioned by month on txn_date
+-- (corelib.partition.transaction.enabled=true keeps partitions ahead and applies retention).
+--
+-- Partitions are named transaction_pYYYYMM and cover [first of month, first of next month) UTC.
+-- They are created from the month of the oldest row through the month of the newest row or
+-- three months ahead, whichever is later. There is no DEFAULT partition, so an INSERT or COPY
+-- with a txn_date outside them fails with "no partition of relation found for row"; create the
+-- months first with corelib_create_transaction_partition(date) or
+-- TransactionPartitionManager.ensurePartitions. A DEFAULT partition is left out on purpose:
+-- rows in it would block creating the partition of their month later.
+--
+-- PostgreSQL only enforces unique constraints that contain the partition key, so the primary
+-- key becomes (id, txn_date) and the global uniqueness of transaction_id moves to
+-- transaction_id_registry, kept in sync by a row trigger (it also fires for COPY).
+--
+-- The existing rows are copied and the old table is kept as transaction_unpartitioned; drop it
+-- once the new table is verified. Copying a large table takes time and blocks writes, so run
+-- this script in a maintenance window. It does nothing when transaction is already partitioned.
+
+CREATE OR REPLACE FUNCTION corelib_create_transaction_partition(p_month date) RETURNS text
+    LANGUAGE plpgsql AS $$
+DECLARE
+    month_start    timestamp   := date_trunc('month', p_month::timestamp);
+    partition_name text        := 'transaction_p' || to_char(month_start, 'YYYYMM');
+BEGIN
+    IF to_regclass(quote_ident(partition_name)) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF transaction FOR VALUES FROM (%L) TO (%L)',
+                       partition_name,
+                       month_start AT TIME ZONE 'UTC',
+                       (month_start + interval '1 month') AT TIME ZONE 'UTC');
+    END IF;
+    RETURN partition_name;
+END $$;
+
+CREATE OR REPLACE FUNCTION corelib_transaction_id_registry() RETURNS trigger
+    LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM transaction_id_registry WHERE transaction_id = OLD.transaction_id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO transaction_id_registry (transaction_id, txn_date) VALUES (NEW.transaction_id, NEW.txn_date);
+    END IF;
+    RETURN NULL;
+END $$;
+
+DO $$
+DECLARE
+    this_month      date := date_trunc('month', now() AT TIME ZONE 'UTC')::date;
+    partition_month date;
+    last_month      date;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('transaction')) THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE transaction RENAME TO transaction_unpartitioned;
+    ALTER INDEX IF EXISTS idx_transaction_txn_date_id RENAME TO idx_transaction_unpartitioned_txn_date_id;
+
+    CREATE TABLE transaction (LIKE transaction_unpartitioned INCLUDING DEFAULTS INCLUDING COMMENTS)
+        PARTITION BY RANGE (txn_date);
+    ALTER TABLE transaction ADD CONSTRAINT corelib_transaction_pkey PRIMARY KEY (id, txn_date);
+    CREATE INDEX idx_transaction_txn_date_id ON transaction (txn_date, id);
+    CREATE INDEX idx_transaction_transaction_id ON transaction (transaction_id);
+
+    CREATE TABLE IF NOT EXISTS transaction_id_registry (
+        transaction_id VARCHAR(255) PRIMARY KEY,
+        txn_date       TIMESTAMPTZ  NOT NULL
+    );
+    CREATE INDEX IF NOT EXISTS transaction_id_registry_txn_date_idx ON transaction_id_registry (txn_date);
+    CREATE TRIGGER corelib_transaction_id_registry
+        AFTER INSERT OR UPDATE OF transaction_id, txn_date OR DELETE ON transaction
+        FOR EACH ROW EXECUTE FUNCTION corelib_transaction_id_registry();
+
+    SELECT LEAST(date_trunc('month', min(txn_date) AT TIME ZONE 'UTC')::date, this_month),
+           GREATEST(date_trunc('month', max(txn_date) AT TIME ZONE 'UTC')::date, (this_month + interval '3 months')::date)
+    INTO partition_month, last_month
+    FROM transaction_unpartitioned;
+    WHILE partition_month <= last_month LOOP
+        PERFORM corelib_create_transaction_partition(partition_month);
+        partition_month := (partition_month + interval '1 month')::date;
+    END LOOP;
+
+    INSERT INTO transaction SELECT * FROM transaction_unpartitioned;
+END $$;
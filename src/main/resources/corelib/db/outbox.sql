@@ -0,0 +1,30 @@
+-- Transactional outbox used by com.core.lib.outbox (corelib.outbox.enabled=true).
+-- Unsent rows are found through the partial index, so the table can keep sent rows
+-- until they are pruned (corelib.outbox.retention).
+-- The relay sends rows in seq order. Ids come in blocks of 50 per node and say nothing about
+-- insert order, seq is assigned one by one at insert time.
+CREATE SEQUENCE IF NOT EXISTS corelib_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS corelib_outbox (
+    id           BIGINT       PRIMARY KEY DEFAULT nextval('corelib_outbox_seq'),
+    seq          BIGSERIAL    NOT NULL,
+    topic        VARCHAR(255) NOT NULL,
+    event_key    VARCHAR(255),
+    payload_type VARCHAR(255),
+    payload      TEXT         NOT NULL,
+    created_at   TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    sent_at      TIMESTAMPTZ
+);
+
+-- Tables created before seq existed: existing rows are numbered in physical order.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_name = 'corelib_outbox' AND column_name = 'seq') THEN
+        ALTER TABLE corelib_outbox ADD COLUMN seq BIGSERIAL NOT NULL;
+    END IF;
+END $$;
+
+DROP INDEX IF EXISTS corelib_outbox_unsent_idx;
+CREATE INDEX IF NOT EXISTS corelib_outbox_unsent_seq_idx ON corelib_outbox (seq) WHERE sent_at IS NULL;
+CREATE INDEX IF NOT EXISTS corelib_outbox_sent_at_idx ON corelib_outbox (sent_at) WHERE sent_at IS NOT NULL;
@@ -0,0 +1,10 @@
+package com.core.lib;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Boot configuration for the slice tests; the library itself has no application class.
+ */
+@SpringBootApplication
+public class CoreLibTestApplication {
+}
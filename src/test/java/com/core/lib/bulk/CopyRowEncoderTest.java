@@ -0,0 +1,122 @@
+package com.core.lib.bulk;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CopyRowEncoderTest {
+
+    @Test
+    void binaryTimestampsAreMicrosSincePostgresEpoch() throws IOException {
+        CopyRowEncoder encoder = binary(Instant.class, Instant.class, Instant.class);
+
+        DataInputStream row = row(encoder.encode(new Object[]{
+                Instant.parse("2000-01-01T00:00:00Z"),
+                Instant.parse("2000-01-01T00:00:01.000001Z"),
+                Instant.parse("1999-12-31T23:59:59Z")}));
+
+        assertThat(row.readShort()).isEqualTo((short) 3);
+        assertThat(row.readInt()).isEqualTo(8);
+        assertThat(row.readLong()).isZero();
+        assertThat(row.readInt()).isEqualTo(8);
+        assertThat(row.readLong()).isEqualTo(1_000_001L);
+        assertThat(row.readInt()).isEqualTo(8);
+        assertThat(row.readLong()).isEqualTo(-1_000_000L);
+    }
+
+    @Test
+    void binaryTimestampsOfAllTypesAgreeInUtc() throws IOException {
+        Instant instant = Instant.parse("2026-10-18T10:15:30.123456Z");
+        CopyRowEncoder encoder = binary(Instant.class, OffsetDateTime.class, LocalDateTime.class);
+
+        DataInputStream row = row(encoder.encode(new Object[]{
+                instant,
+                instant.atOffset(ZoneOffset.ofHours(5)),
+                LocalDateTime.ofInstant(instant, ZoneOffset.UTC)}));
+
+        row.readShort();
+        long[] micros = new long[3];
+        for (int i = 0; i < micros.length; i++) {
+            assertThat(row.readInt()).isEqualTo(8);
+            micros[i] = row.readLong();
+        }
+        long expected = (instant.getEpochSecond() - Instant.parse("2000-01-01T00:00:00Z").getEpochSecond()) * 1_000_000L
+                + instant.getNano() / 1_000;
+        assertThat(micros).containsOnly(expected);
+    }
+
+    @Test
+    void binaryDatesAreDaysSincePostgresEpoch() throws IOException {
+        DataInputStream row = row(binary(LocalDate.class).encode(new Object[]{LocalDate.of(2000, 1, 2)}));
+
+        row.readShort();
+        assertThat(row.readInt()).isEqualTo(4);
+        assertThat(row.readInt()).isEqualTo(1);
+    }
+
+    @Test
+    void binaryNullAndTextFields() throws IOException {
+        DataInputStream row = row(binary(String.class, Long.class).encode(new Object[]{"zürich", null}));
+
+        assertThat(row.readShort()).isEqualTo((short) 2);
+        byte[] utf8 = "zürich".getBytes(StandardCharsets.UTF_8);
+        assertThat(row.readInt()).isEqualTo(utf8.length);
+        assertThat(row.readNBytes(utf8.length)).isEqualTo(utf8);
+        assertThat(row.readInt()).isEqualTo(-1);
+        assertThat(row.available()).isZero();
+    }
+
+    @Test
+    void binaryRejectsNulCharactersAndUnsupportedColumns() {
+        assertThatThrownBy(() -> binary(String.class).encode(new Object[]{"a\0b"}))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> binary(java.math.BigDecimal.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("use CSV");
+    }
+
+    @Test
+    void binaryHeaderAndTrailer() {
+        CopyRowEncoder encoder = binary(Long.class);
+
+        assertThat(Arrays.copyOf(encoder.header(), 11))
+                .isEqualTo(new byte[]{'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0});
+        assertThat(encoder.header()).hasSize(19);
+        assertThat(encoder.trailer()).isEqualTo(new byte[]{(byte) 0xFF, (byte) 0xFF});
+    }
+
+    @Test
+    void csvQuotesValuesAndLeavesNullsEmpty() throws IOException {
+        CopyRowEncoder encoder = CopyRowEncoder.of(CopyFormat.CSV, List.of());
+
+        byte[] line = encoder.encode(new Object[]{"say \"hi\"", null, 42L, new java.math.BigDecimal("1E+3")});
+
+        assertThat(new String(line, StandardCharsets.UTF_8)).isEqualTo("\"say \"\"hi\"\"\",,\"42\",\"1000\"\n");
+        assertThat(encoder.header()).isEmpty();
+        assertThat(encoder.trailer()).isEmpty();
+    }
+
+    private static CopyRowEncoder binary(Class<?>... types) {
+        List<CopyTableMapping.CopyColumn> columns = Arrays.stream(types)
+                .map(type -> new CopyTableMapping.CopyColumn("c", "c", 0, type, true, false))
+                .toList();
+        return CopyRowEncoder.of(CopyFormat.BINARY, columns);
+    }
+
+    private static DataInputStream row(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+}
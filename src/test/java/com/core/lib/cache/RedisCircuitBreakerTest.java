@@ -0,0 +1,141 @@
+package com.core.lib.cache;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RedisCircuitBreakerTest {
+
+    private static final Duration NEVER_SLOW = Duration.ofHours(1);
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        RedisCircuitBreaker breaker = breaker(true, NEVER_SLOW, Duration.ofHours(1));
+
+        for (int i = 0; i < 3; i++) fail(breaker);
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+
+        succeed(breaker); // 3 of 4 failed
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void opensOnceTheFailureRateIsReached() {
+        RedisCircuitBreaker breaker = breaker(true, NEVER_SLOW, Duration.ofHours(1));
+
+        for (int i = 0; i < 3; i++) succeed(breaker);
+        fail(breaker);
+        fail(breaker); // 2 of 5 failed
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+
+        fail(breaker); // 3 of 6
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void rejectsWithoutCallingWhileOpen() {
+        RedisCircuitBreaker breaker = opened(Duration.ofHours(1));
+
+        int[] calls = {0};
+        assertThatThrownBy(() -> breaker.run(() -> calls[0]++)).isInstanceOf(RedisUnavailableException.class);
+        assertThatThrownBy(() -> breaker.executeAsync(() -> Mono.just(1)).block())
+                .isInstanceOf(RedisUnavailableException.class);
+
+        assertThat(calls[0]).isZero();
+        assertThat(breaker.rejectedCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void closesAfterSuccessfulProbes() {
+        RedisCircuitBreaker breaker = opened(Duration.ZERO);
+
+        succeed(breaker);
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.HALF_OPEN);
+        succeed(breaker);
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+
+        fail(breaker); // window was reset on close
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void reopensOnFailedProbe() {
+        RedisCircuitBreaker breaker = opened(Duration.ZERO);
+
+        succeed(breaker);
+        fail(breaker);
+
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void limitsConcurrentProbes() {
+        RedisCircuitBreaker breaker = opened(Duration.ZERO);
+
+        breaker.executeAsync(Mono::never).subscribe();
+        breaker.executeAsync(Mono::never).subscribe();
+
+        assertThatThrownBy(() -> succeed(breaker)).isInstanceOf(RedisUnavailableException.class);
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void cancelledProbeIsGivenBack() {
+        RedisCircuitBreaker breaker = opened(Duration.ZERO);
+
+        breaker.executeAsync(Mono::never).subscribe().dispose();
+        breaker.executeAsync(Mono::never).subscribe().dispose();
+        succeed(breaker);
+        succeed(breaker);
+
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(breaker.rejectedCalls()).isZero();
+    }
+
+    @Test
+    void opensOnSlowCalls() {
+        RedisCircuitBreaker breaker = breaker(true, Duration.ZERO, Duration.ofHours(1));
+
+        for (int i = 0; i < 4; i++) succeed(breaker);
+
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void disabledNeverOpens() {
+        RedisCircuitBreaker breaker = breaker(false, NEVER_SLOW, Duration.ofHours(1));
+
+        for (int i = 0; i < 20; i++) fail(breaker);
+
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(breaker.execute(() -> 1)).isEqualTo(1);
+    }
+
+    /**
+     * Window of 10 calls, opens at 50% failures once 4 calls were seen, probes with 2 calls.
+     */
+    private static RedisCircuitBreaker breaker(boolean enabled, Duration slowCallThreshold, Duration openDuration) {
+        return new RedisCircuitBreaker(enabled, 50, 100, slowCallThreshold, 10, 4, openDuration, 2);
+    }
+
+    private static RedisCircuitBreaker opened(Duration openDuration) {
+        RedisCircuitBreaker breaker = breaker(true, NEVER_SLOW, openDuration);
+        for (int i = 0; i < 4; i++) fail(breaker);
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        return breaker;
+    }
+
+    private static void succeed(RedisCircuitBreaker breaker) {
+        breaker.execute(() -> "ok");
+    }
+
+    private static void fail(RedisCircuitBreaker breaker) {
+        assertThatThrownBy(() -> breaker.execute(() -> {
+            throw new IllegalStateException("redis down");
+        })).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,129 @@
+package com.core.lib.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WriteBehindBufferTest {
+
+    private RedisTemplate<String, byte[]> redisTemplate;
+    private HashOperations<String, String, byte[]> hashOperations;
+    private WriteBehindBuffer buffer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        hashOperations = mock(HashOperations.class);
+        RedisOperations<String, byte[]> pipeline = mock(RedisOperations.class);
+        when(pipeline.<String, byte[]>opsForHash()).thenReturn(hashOperations);
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<SessionCallback<Object>>getArgument(0).execute(pipeline);
+                    return List.of();
+                });
+        // the window is long enough that only the explicit flushes of the tests run
+        buffer = new WriteBehindBuffer(redisTemplate, mock(ObjectProvider.class), mock(ObjectProvider.class),
+                Set.of("client"), Duration.ofHours(1), 2, 500, Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.destroy();
+    }
+
+    @Test
+    void coalescesWritesToTheSameField() {
+        assertThat(buffer.offer("client", "1", bytes("a"))).isTrue();
+        assertThat(buffer.offer("client", "1", bytes("b"))).isTrue();
+
+        assertThat(buffer.pendingValue("client", "1")).isEqualTo(bytes("b"));
+        assertThat(buffer.stats()).isEqualTo(new WriteBehindStats(2, 1, 0, 0, 1));
+    }
+
+    @Test
+    void refusesNewFieldsWhenFullButStillCoalesces() {
+        buffer.offer("client", "1", bytes("a"));
+        buffer.offer("client", "2", bytes("a"));
+
+        assertThat(buffer.offer("client", "3", bytes("a"))).isFalse();
+        assertThat(buffer.offer("client", "2", bytes("b"))).isTrue();
+        assertThat(buffer.pendingValue("client", "3")).isNull();
+    }
+
+    @Test
+    void discardReleasesCapacity() {
+        buffer.offer("client", "1", bytes("a"));
+        buffer.offer("client", "2", bytes("a"));
+
+        buffer.discard("client", "1");
+
+        assertThat(buffer.pendingValue("client", "1")).isNull();
+        assertThat(buffer.offer("client", "3", bytes("a"))).isTrue();
+    }
+
+    @Test
+    void discardHashOnlyDropsThatHash() {
+        buffer.offer("client", "1", bytes("a"));
+        buffer.offer("country", "1", bytes("a"));
+
+        buffer.discardHash("client");
+
+        assertThat(buffer.pendingValues("client")).isEmpty();
+        assertThat(buffer.pendingValues("country")).containsOnlyKeys("1");
+        assertThat(buffer.offer("client", "2", bytes("a"))).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushWritesAndReleasesPendingFields() {
+        buffer.offer("client", "1", bytes("a"));
+        buffer.offer("client", "2", bytes("b"));
+
+        assertThat(buffer.flush()).isTrue();
+
+        ArgumentCaptor<Map<String, byte[]>> written = ArgumentCaptor.forClass(Map.class);
+        verify(hashOperations).putAll(eq("client"), written.capture());
+        assertThat(written.getValue()).containsOnlyKeys("1", "2");
+        assertThat(written.getValue().get("2")).isEqualTo(bytes("b"));
+        assertThat(buffer.pendingValues("client")).isEmpty();
+        assertThat(buffer.stats().flushed()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedFlushKeepsPendingFields() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        buffer.offer("client", "1", bytes("a"));
+
+        assertThat(buffer.flush()).isFalse();
+        assertThat(buffer.pendingValue("client", "1")).isEqualTo(bytes("a"));
+
+        buffer.destroy();
+        assertThat(buffer.stats().dropped()).isEqualTo(1);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes();
+    }
+}
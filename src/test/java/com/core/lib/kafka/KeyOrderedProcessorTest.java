@@ -0,0 +1,81 @@
+package com.core.lib.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class KeyOrderedProcessorTest {
+
+    private final KeyOrderedProcessor processor = new KeyOrderedProcessor(Executors.newFixedThreadPool(4), 4);
+
+    @AfterEach
+    void tearDown() {
+        processor.destroy();
+    }
+
+    @Test
+    void keepsTheOrderPerKey() {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int offset = 0; offset < 200; offset++) {
+            records.add(record(offset, "key-" + offset % 7));
+        }
+        Map<String, List<Long>> seen = new ConcurrentHashMap<>();
+
+        processor.process(records, record -> {
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextInt(100_000));
+            seen.computeIfAbsent(record.key(), ignored -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(record.offset());
+        });
+
+        assertThat(seen).hasSize(7);
+        seen.values().forEach(offsets -> assertThat(offsets).isSorted());
+        assertThat(seen.values().stream().mapToInt(List::size).sum()).isEqualTo(200);
+    }
+
+    @Test
+    void reportsTheLowestFailedRecordAndStopsItsLane() {
+        List<ConsumerRecord<String, String>> records = List.of(
+                record(0, "a"), record(1, "b"), record(2, "a"), record(3, "c"), record(4, "b"), record(5, "a"));
+        Set<Long> processed = ConcurrentHashMap.newKeySet();
+
+        BatchListenerFailedException failure = catchThrowableOfType(BatchListenerFailedException.class,
+                () -> processor.process(records, record -> {
+                    if (record.offset() == 1 || record.offset() == 3) {
+                        throw new IllegalStateException("failed " + record.offset());
+                    }
+                    processed.add(record.offset());
+                }));
+
+        assertThat(failure.getIndex()).isEqualTo(1);
+        assertThat(failure.getCause()).hasMessage("failed 1");
+        assertThat(processed).contains(0L).doesNotContain(4L);
+    }
+
+    @Test
+    void recordsWithoutKeyAreNotOrdered() {
+        List<ConsumerRecord<String, String>> records = List.of(record(0, null), record(1, null));
+        Set<Long> processed = ConcurrentHashMap.newKeySet();
+
+        processor.process(records, record -> processed.add(record.offset()));
+
+        assertThat(processed).containsExactlyInAnyOrder(0L, 1L);
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String key) {
+        return new ConsumerRecord<>("payments", 0, offset, key, "value-" + offset);
+    }
+}
@@ -0,0 +1,41 @@
+package com.core.lib.partition;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MonthlyPartitionsTest {
+
+    @Test
+    void boundsAreHalfOpenUtcMonths() {
+        assertThat(MonthlyPartitions.start(YearMonth.of(2026, 10))).isEqualTo(Instant.parse("2026-10-01T00:00:00Z"));
+        assertThat(MonthlyPartitions.end(YearMonth.of(2026, 10))).isEqualTo(Instant.parse("2026-11-01T00:00:00Z"));
+        assertThat(MonthlyPartitions.end(YearMonth.of(2026, 12))).isEqualTo(Instant.parse("2027-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void monthOfUsesUtc() {
+        assertThat(MonthlyPartitions.monthOf(Instant.parse("2026-10-31T23:59:59.999Z"))).isEqualTo(YearMonth.of(2026, 10));
+        assertThat(MonthlyPartitions.monthOf(Instant.parse("2026-11-01T00:00:00Z"))).isEqualTo(YearMonth.of(2026, 11));
+    }
+
+    @Test
+    void nameRoundTrips() {
+        String name = MonthlyPartitions.partitionName("transaction", YearMonth.of(2026, 3));
+
+        assertThat(name).isEqualTo("transaction_p202603");
+        assertThat(MonthlyPartitions.parse("transaction", name)).isEqualTo(YearMonth.of(2026, 3));
+    }
+
+    @Test
+    void parseIgnoresOtherTables() {
+        assertThat(MonthlyPartitions.parse("transaction", "transaction_unpartitioned")).isNull();
+        assertThat(MonthlyPartitions.parse("transaction", "transaction_p2026")).isNull();
+        assertThat(MonthlyPartitions.parse("transaction", "transaction_p202613")).isNull();
+        assertThat(MonthlyPartitions.parse("transaction", "tax_record_p202603")).isNull();
+        assertThat(MonthlyPartitions.parse("transaction", "transaction_p2026031")).isNull();
+    }
+}
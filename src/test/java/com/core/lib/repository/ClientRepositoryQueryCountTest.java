@@ -0,0 +1,125 @@
+package com.core.lib.repository;
+
+import com.core.lib.config.JpaConfig;
+import com.core.lib.entity.Client;
+import com.core.lib.entity.ClientContact;
+import com.core.lib.entity.Country;
+import com.core.lib.entity.Custodian;
+import com.core.lib.util.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Statement counts of the client listing, so N+1 regressions fail the build.
+ * The table names include {@code client-Contact}, hence the quoted identifiers.
+ */
+@DataJpaTest(properties = {
+        "corelib.jpa.query-count.enabled=true",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true"
+})
+@Import(JpaConfig.class)
+class ClientRepositoryQueryCountTest {
+
+    private static final int CLIENTS = 150;
+    private static final int CONTACTS_PER_CLIENT = 2;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Country country = new Country();
+        country.setCountryCode("IN");
+        country.setCountryName("India");
+        entityManager.persist(country);
+
+        Custodian custodian = new Custodian();
+        custodian.setName("custodian");
+        custodian.setCreatedBy("test");
+        entityManager.persist(custodian);
+
+        for (int i = 0; i < CLIENTS; i++) {
+            Client client = new Client();
+            client.setName("client-" + i);
+            client.setCreatedBy("test");
+            client.setCountry(country);
+            client.setCustodian(custodian);
+            List<ClientContact> contacts = new ArrayList<>();
+            for (int j = 0; j < CONTACTS_PER_CLIENT; j++) {
+                ClientContact contact = new ClientContact();
+                contact.setClient(client);
+                contact.setContactType("EMAIL");
+                contact.setContactValue("client-" + i + "-" + j + "@example.com");
+                contacts.add(contact);
+            }
+            client.setContacts(contacts);
+            entityManager.persist(client);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pageOfClientsWithCountryAndCustodianIsOneStatement() {
+        // the page is not full, so Spring Data skips the count query
+        Page<Client> page = QueryCounter.assertAtMost(1, () -> clientRepository.findAll(PageRequest.of(0, 500)));
+
+        assertThat(page.getContent()).hasSize(CLIENTS);
+        long names = QueryCounter.count(() -> page.getContent().forEach(client -> {
+            assertThat(client.getCountry().getCountryName()).isEqualTo("India");
+            assertThat(client.getCustodian().getName()).isEqualTo("custodian");
+        }));
+        assertThat(names).isZero();
+    }
+
+    @Test
+    void contactsOfAPageAreLoadedInBatches() {
+        Page<Client> page = clientRepository.findAll(PageRequest.of(0, 500));
+
+        // @BatchSize(100) on Client.contacts: 150 owners take two statements, not 150
+        int contacts = QueryCounter.assertAtMost(2, () -> page.getContent().stream()
+                .mapToInt(client -> client.getContacts().size())
+                .sum());
+
+        assertThat(contacts).isEqualTo(CLIENTS * CONTACTS_PER_CLIENT);
+    }
+
+    @Test
+    void clientsWithContactsByIdAreOneStatement() {
+        List<Long> ids = clientRepository.findAll(PageRequest.of(0, 20)).map(Client::getClientId).getContent();
+        entityManager.clear();
+
+        List<Client> clients = QueryCounter.assertAtMost(1, () -> clientRepository.findWithContactsByClientIdIn(ids));
+
+        long lazyLoads = QueryCounter.count(() -> clients.forEach(client -> {
+            assertThat(client.getContacts()).hasSize(CONTACTS_PER_CLIENT);
+            assertThat(client.getCountry().getCountryCode()).isEqualTo("IN");
+        }));
+        assertThat(lazyLoads).isZero();
+    }
+
+    @Test
+    void exceedingTheLimitFails() {
+        Page<Client> page = clientRepository.findAll(PageRequest.of(0, 500));
+
+        assertThatThrownBy(() -> QueryCounter.assertAtMost(0, () -> page.getContent().get(0).getContacts().size()))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("Expected at most 0 SQL statements");
+    }
+}
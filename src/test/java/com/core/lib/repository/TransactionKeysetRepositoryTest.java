@@ -0,0 +1,94 @@
+package com.core.lib.repository;
+
+import com.core.lib.entity.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset paging over rows sharing a {@code txn_date}, where only the id keeps pages apart.
+ */
+@DataJpaTest(properties = {
+        "corelib.jpa.keyset.max-page-size=3",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true"
+})
+class TransactionKeysetRepositoryTest {
+
+    private static final Instant FROM = Instant.parse("2026-10-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2026-11-01T00:00:00Z");
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final List<Transaction> inRange = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Instant[] dates = {FROM.plusSeconds(60), FROM, FROM.plusSeconds(60), FROM, TO.minusMillis(1),
+                FROM.plusSeconds(60), FROM};
+        for (int i = 0; i < dates.length; i++) {
+            inRange.add(persist("in-" + i, dates[i]));
+        }
+        persist("before", FROM.minusMillis(1));
+        persist("after", TO);
+        entityManager.flush();
+        entityManager.clear();
+        inRange.sort(Comparator.comparing(Transaction::getTxnDate).thenComparing(Transaction::getId));
+    }
+
+    @Test
+    void pagesThroughTiesWithoutGapsOrDuplicates() {
+        List<Long> ids = new ArrayList<>();
+        Keyset<Instant> after = null;
+        int pages = 0;
+        do {
+            KeysetPage<Transaction, Instant> page = transactionRepository.findPage(FROM, TO, after, 2);
+            assertThat(page.content()).hasSizeLessThanOrEqualTo(2);
+            page.content().forEach(transaction -> ids.add(transaction.getId()));
+            after = page.next();
+            pages++;
+        } while (after != null);
+
+        assertThat(ids).containsExactlyElementsOf(inRange.stream().map(Transaction::getId).toList());
+        assertThat(pages).isEqualTo(4);
+    }
+
+    @Test
+    void clampsThePageSize() {
+        KeysetPage<Transaction, Instant> page = transactionRepository.findPage(FROM, TO, null, 100);
+
+        assertThat(page.content()).hasSize(3);
+        assertThat(page.next()).isEqualTo(new Keyset<>(inRange.get(2).getTxnDate(), inRange.get(2).getId()));
+    }
+
+    @Test
+    void lastPageHasNoNext() {
+        Transaction last = inRange.get(inRange.size() - 2);
+
+        KeysetPage<Transaction, Instant> page = transactionRepository.findPage(FROM, TO,
+                new Keyset<>(last.getTxnDate(), last.getId()), 2);
+
+        assertThat(page.content()).extracting(Transaction::getId).containsExactly(inRange.getLast().getId());
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    private Transaction persist(String transactionId, Instant txnDate) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setTxnDate(txnDate);
+        return entityManager.persist(transaction);
+    }
+}